@@ -0,0 +1,74 @@
+package pacman.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pacman.Board;
+import pacman.Location;
+
+// Board generation and the whole-board queries the renderer uses, from the 10x10 board the game
+// starts with up to 4096x4096. construct also reports how much of its time went on filling in the
+// cells (Board.getGenerationNanos), the rest is the flood fill and placing the ghosts.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"10", "64", "512", "4096"})
+    public int size;
+
+    @Param({"1", "5", "10"})
+    public int level;
+
+    private Board board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Board(size, new Location(0, 0), 42L, level);
+    }
+
+    // secondary results of construct, totals over the measured iterations since JMH adds events up:
+    // generationNanos / boards is the mean time a board spent filling in its cells
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Generation {
+        public long generationNanos;
+        public long boards;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            generationNanos = 0;
+            boards = 0;
+        }
+    }
+
+    @Benchmark
+    public Board construct(Generation generation) {
+        Board constructed = new Board(size, new Location(0, 0), 42L, level);
+        generation.generationNanos += constructed.getGenerationNanos();
+        generation.boards++;
+        return constructed;
+    }
+
+    @Benchmark
+    public String drawBoard() {
+        return board.drawBoard();
+    }
+
+    @Benchmark
+    public ArrayList<Location> getObstacles() {
+        return board.getObstacles();
+    }
+
+    @Benchmark
+    public ArrayList<Location> getPellets() {
+        return board.getPellets();
+    }
+
+    @Benchmark
+    public ArrayList<Location> getGhosts() {
+        return board.getGhosts();
+    }
+}
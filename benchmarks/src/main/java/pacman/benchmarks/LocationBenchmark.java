@@ -0,0 +1,45 @@
+package pacman.benchmarks;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pacman.Direction;
+import pacman.Location;
+import pacman.Pixels;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationBenchmark {
+    private Location a = new Location(3, 7);
+    private Location b = new Location(12, 5);
+    private Direction direction = Direction.LEFT;
+
+    @Benchmark
+    public Location move() {
+        return a.move(direction);
+    }
+
+    @Benchmark
+    public double distance() {
+        return a.distance(b);
+    }
+
+    @Benchmark
+    public boolean equalsLocation() {
+        return a.equals(b);
+    }
+
+    @Benchmark
+    public Location toGridCoords() {
+        return Pixels.toGridCoords(a);
+    }
+
+    @Benchmark
+    public Point toPoint() {
+        return Pixels.toPoint(a);
+    }
+}
@@ -0,0 +1,75 @@
+package pacman.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pacman.Board;
+import pacman.Direction;
+import pacman.Location;
+import pacman.SharedBoard;
+
+// One tick of a large shared board with hundreds of players, by thread count, to see how the
+// region sharded tick scales with cores. threads = 1 ticks every region on the benchmark thread.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedBoardBenchmark {
+    private static final Direction[] PATTERN = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"2048"})
+    public int size;
+
+    @Param({"500"})
+    public int players;
+
+    private Board layout; // only read by SharedBoard, so every iteration can start from it
+    private ForkJoinPool pool;
+    private SharedBoard board;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        layout = new Board(size, new Location(0, 0), 42L, 1);
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    // a fresh board every iteration so players don't all get caught part way through a run
+    @Setup(Level.Iteration)
+    public void setUp() {
+        board = new SharedBoard(layout, SharedBoard.DEFAULT_REGION_SIZE, pool);
+        Random random = new Random(42L);
+        for (int i = 0; i < players; i++) {
+            Location cell = layout.randomFreeCell(random);
+            board.addPlayer(cell.getX(), cell.getY());
+        }
+        for (int i = 0; i < players * 2; i++) {
+            Location cell = layout.randomFreeCell(random);
+            board.addGhost(cell.getX(), cell.getY());
+        }
+        tick = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long tick() {
+        for (int p = 0; p < players; p++) {
+            board.setDirection(p, PATTERN[(tick + p) & 3]);
+        }
+        tick++;
+        board.tick();
+        return board.getTick();
+    }
+}
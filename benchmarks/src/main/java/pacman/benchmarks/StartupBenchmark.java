@@ -0,0 +1,69 @@
+package pacman.benchmarks;
+
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pacman.Board;
+import pacman.Direction;
+import pacman.Location;
+
+// Wall time from launching a JVM to a headless game having played its first ticks, with and without
+// AWT being initialised on the way. Each measurement starts a fresh java process, so this is the
+// start up cost a batch runner or a game server pays, not steady state speed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private static final int TICKS = 100;
+
+    private String javaBinary;
+    private String classPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        javaBinary = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        classPath = System.getProperty("java.class.path");
+    }
+
+    @Benchmark
+    public int engineOnly() throws IOException, InterruptedException {
+        return launch("engine");
+    }
+
+    // what every headless run used to pay when the engine reached into java.awt
+    @Benchmark
+    public int withAwt() throws IOException, InterruptedException {
+        return launch("awt");
+    }
+
+    private int launch(String mode) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(javaBinary, "-Djava.awt.headless=true", "-cp", classPath,
+                StartupBenchmark.class.getName(), mode)
+                .inheritIO()
+                .start();
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException("startup run exited with " + exit);
+        }
+        return exit;
+    }
+
+    // the process being timed: optionally bring AWT up, then play a few ticks on a fresh board
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("awt")) {
+            Toolkit.getDefaultToolkit();
+            new Point(0, 0);
+        }
+        Board board = new Board(10, new Location(0, 0), 42L, 1);
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < TICKS && !board.isGameOver(); i++) {
+            board.tick(directions[i & 3]);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package pacman.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pacman.Board;
+import pacman.Direction;
+import pacman.Ghost;
+import pacman.Location;
+
+// The per tick work: pacman moving (which moves every ghost) and a single ghost picking its move.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+    private static final Direction[] PATTERN = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+    @Param({"10", "64", "512", "4096"})
+    public int size;
+
+    @Param({"1", "5", "10"})
+    public int level;
+
+    private Board board;
+    private Ghost ghost;
+    private int tick;
+
+    // a fresh board every iteration so pellets and ghosts don't run out part way through a run
+    @Setup(Level.Iteration)
+    public void setUp() {
+        board = new Board(size, new Location(0, 0), 42L, level);
+        ghost = board.getGhost(0); // every level has at least one, computeMove leaves it where it is
+        tick = 0;
+    }
+
+    @Benchmark
+    public boolean move() {
+        return board.move(PATTERN[tick++ & 3]);
+    }
+
+    @Benchmark
+    public Direction computeMove() {
+        return ghost.computeMove();
+    }
+}
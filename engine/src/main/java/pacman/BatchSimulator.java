@@ -0,0 +1,209 @@
+package pacman;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+// Plays many headless games in parallel to see how the level formulas in Board play out.
+// Every game is fully determined by its seed, level and policy, and results are only ever
+// summed, so the report is the same no matter how many threads run it.
+public class BatchSimulator {
+    private static final int SEEDS_PER_TASK = 64; // below this a task plays its games itself
+
+    private final int size;
+    private final int maxTicks;
+    private final LongFunction<PacmanPolicy> policies; // builds a fresh policy from a game's seed
+    private RunLog runLog; // every game is appended here if set, in whatever order the threads finish
+    private FileChannel replays; // a replay of every game is appended here if set, see ReplayArchive
+
+    public BatchSimulator(int size, int maxTicks, LongFunction<PacmanPolicy> policies) {
+        this.size = size;
+        this.maxTicks = maxTicks;
+        this.policies = policies;
+    }
+
+    // totals for every game played at one level
+    public static class LevelStats {
+        public final int level;
+        public long games;
+        public long wins;
+        public long deaths;
+        public long ticksToClear; // summed over won games only
+        public long score;
+
+        public LevelStats(int level) {
+            this.level = level;
+        }
+
+        void add(LevelStats other) {
+            games += other.games;
+            wins += other.wins;
+            deaths += other.deaths;
+            ticksToClear += other.ticksToClear;
+            score += other.score;
+        }
+
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public double deathRate() {
+            return games == 0 ? 0 : (double) deaths / games;
+        }
+
+        public double averageTicksToClear() {
+            return wins == 0 ? 0 : (double) ticksToClear / wins;
+        }
+    }
+
+    public void setRunLog(RunLog runLog) {
+        this.runLog = runLog;
+    }
+
+    public void setReplays(FileChannel replays) {
+        this.replays = replays;
+    }
+
+    // play every level for each seed in [firstSeed, lastSeed), results are in the order of levels
+    public LevelStats[] run(long firstSeed, long lastSeed, int[] levels, ForkJoinPool pool) {
+        return pool.invoke(new SeedRange(firstSeed, lastSeed, levels));
+    }
+
+    private void play(long seed, int level, LevelStats stats) {
+        Board board = new Board(size, new Location(0, 0), seed, level);
+        PacmanPolicy policy = policies.apply(seed * 31 + level);
+        ReplayRecorder recorder = replays == null ? null
+                : new ReplayRecorder(Replay.MOVES, size, new Location(0, 0), seed, level);
+        int ticks = 0;
+        while (ticks < maxTicks && !board.isGameOver() && board.getPelletCount() > 0) {
+            Direction move = policy.nextMove(board);
+            // moving nowhere changes nothing, so it has no place in the replay
+            if (recorder != null && move != null) {
+                recorder.record(move);
+            }
+            board.move(move);
+            ticks++;
+        }
+        stats.games++;
+        stats.score += board.getScore();
+        if (board.isGameOver()) {
+            stats.deaths++;
+        } else if (board.getPelletCount() == 0) {
+            stats.wins++;
+            stats.ticksToClear += ticks;
+        }
+        try {
+            if (runLog != null) {
+                runLog.append(seed, level, board.getScore(), ticks, System.currentTimeMillis());
+            }
+            if (recorder != null) {
+                ReplayArchive.append(replays, recorder.finish(board));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class SeedRange extends RecursiveTask<LevelStats[]> {
+        private final long from;
+        private final long to;
+        private final int[] levels;
+
+        SeedRange(long from, long to, int[] levels) {
+            this.from = from;
+            this.to = to;
+            this.levels = levels;
+        }
+
+        @Override
+        protected LevelStats[] compute() {
+            if (to - from <= SEEDS_PER_TASK) {
+                LevelStats[] result = emptyStats(levels);
+                for (long seed = from; seed < to; seed++) {
+                    for (int i = 0; i < levels.length; i++) {
+                        play(seed, levels[i], result[i]);
+                    }
+                }
+                return result;
+            }
+            long middle = from + (to - from) / 2;
+            SeedRange left = new SeedRange(from, middle, levels);
+            left.fork();
+            LevelStats[] result = new SeedRange(middle, to, levels).compute();
+            LevelStats[] other = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i].add(other[i]);
+            }
+            return result;
+        }
+    }
+
+    private static LevelStats[] emptyStats(int[] levels) {
+        LevelStats[] stats = new LevelStats[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            stats[i] = new LevelStats(levels[i]);
+        }
+        return stats;
+    }
+
+    // parses "3" or "1-5"
+    private static int[] parseLevels(String spec) {
+        int dash = spec.indexOf('-');
+        int first = Integer.parseInt(dash < 0 ? spec : spec.substring(0, dash));
+        int last = dash < 0 ? first : Integer.parseInt(spec.substring(dash + 1));
+        int[] levels = new int[last - first + 1];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = first + i;
+        }
+        return levels;
+    }
+
+    // -Dpacman.runLog=file also appends every game to a run log, -Dpacman.replays=file a replay of
+    // every game to an archive that ReplayArchive can check
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: BatchSimulator <firstSeed> <lastSeed> <levels, e.g. 1-5> [policy] [size] [maxTicks] [threads]");
+            System.exit(1);
+        }
+        long firstSeed = Long.parseLong(args[0]);
+        long lastSeed = Long.parseLong(args[1]);
+        int[] levels = parseLevels(args[2]);
+        String policy = args.length > 3 ? args[3] : "greedy";
+        int size = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int maxTicks = args.length > 5 ? Integer.parseInt(args[5]) : 10_000;
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        BatchSimulator simulator = new BatchSimulator(size, maxTicks, seed -> PacmanPolicy.byName(policy, seed));
+        String runLogFile = System.getProperty("pacman.runLog");
+        RunLog runLog = runLogFile == null ? null : RunLog.open(Path.of(runLogFile));
+        simulator.setRunLog(runLog);
+        String replayFile = System.getProperty("pacman.replays");
+        FileChannel replays = replayFile == null ? null : ReplayArchive.openForAppend(Path.of(replayFile));
+        simulator.setReplays(replays);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        LevelStats[] results = simulator.run(firstSeed, lastSeed, levels, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        if (runLog != null) {
+            runLog.close();
+        }
+        if (replays != null) {
+            replays.close();
+        }
+
+        long games = 0;
+        System.out.println("level  games  win%  death%  ticksToClear  avgScore");
+        for (LevelStats stats : results) {
+            games += stats.games;
+            System.out.printf("%5d %6d %5.1f %7.1f %13.1f %9.2f%n", stats.level, stats.games,
+                    stats.winRate() * 100, stats.deathRate() * 100, stats.averageTicksToClear(),
+                    stats.games == 0 ? 0 : (double) stats.score / stats.games);
+        }
+        System.err.printf("%d games in %.2fs on %d threads (%.0f games/s)%n", games, seconds, threads, games / seconds);
+    }
+}
@@ -0,0 +1,843 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class Board {  
+    private int pelletCount; // Number of pellets on the board
+    // board layout packed as one bit per cell, cell (x, y) lives at bit y * size + x
+    private final long[] walls;
+    private final long[] pellets;
+    private final long[] powers;
+    private int pacman; // current location of pacman, packed, see Coords
+    private final int size; // size of the board (assuming square board)
+    private int score; // player's score
+    private int level;
+    private final Ghost[] ghosts;
+    private final GhostIndex ghostIndex; // live ghosts per cell, kept up to date by Ghost
+    private boolean gameOver;
+    private boolean immune = false;
+    private int immunityClock = 0;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    // walking distance from pacman to every cell, shared by all ghosts and rebuilt once per tick
+    // both arrays are only allocated once a search is needed, so a board that is just loaded or
+    // saved never pays for them
+    private int[] distances;
+    private int[] queue; // reused by the breadth first search
+    private boolean distancesStale = true; // pacman moved since the last search
+    private final ArrayList<BoardListener> listeners = new ArrayList<>();
+    // cells are generated in bands of this many bitset words, a fixed size so the layout never depends on core count
+    private static final int BAND_WORDS = 256;
+    // a new board has at least this many pellets pacman can reach, if the board rolled that many at all
+    private static final int MIN_PELLETS = 3;
+    private final long generationNanos;
+    private int[] freeCells; // every open cell except startCell, walls never change so this is built once when first needed
+    private final int startCell; // pacman's cell when the board was made or loaded, -1 if off the board
+    // undo records pushed by makeMove, UNDO_INTS ints plus 1 + ghosts.length packed coordinates each.
+    // Both stacks only grow, so a search that goes back and forth allocates nothing once they're big enough
+    private static final int UNDO_INTS = 5;
+    private static final int KILLED = Integer.MIN_VALUE; // undo coordinates of a ghost that was dead
+    private int[] undoInts = new int[UNDO_INTS * 16];
+    private int[] undoCoords = new int[16];
+    private int undoDepth;
+
+
+    public Board(int size, Location pacmanLocation) { 
+        // creates a new board with a random seed and default level 1
+        this(size, pacmanLocation, (new Random()).nextLong(), 1);
+    }
+
+    public Board(int size, Location pacmanLocation, long seed) {
+        // default to level 1 when not supplied
+        this(size, pacmanLocation, seed, 1);
+    }
+
+    /**
+     * Create a board using a seed and a level number. Wall probability increases with level,
+     * pellet probability decreases with level. Power-pellet probability stays small.
+     */
+    public Board(int size, Location pacmanLocation, long seed, int level) {
+        long constructed = Metrics.ENABLED ? System.nanoTime() : 0;
+        if (size > Coords.MAX) {
+            throw new IllegalArgumentException("Board size " + size + " is larger than " + Coords.MAX);
+        }
+        Random random = new Random(seed);
+        score = 0;
+        gameOver = false;
+        this.size = size;
+        int words = (size * size + 63) >>> 6;
+        this.walls = new long[words];
+        this.pellets = new long[words];
+        this.powers = new long[words];
+        this.pelletCount = 0;
+        this.level = level;
+
+        // compute base chances (percent 0..100)
+        int baseWall = 10; // starting wall chance at level 1
+        int basePellet = 10; // starting pellet chance at level 1
+        int basePower = 5; // small constant chance for power pellets
+        // adjust by level: walls increase, pellets decrease
+        int wallChance = Math.min(80, baseWall + (level - 1) * 6); // increase walls by ~6% per level
+        int pelletChance = Math.max(3, basePellet - (level - 1) * 6); // decrease pellets by ~6% per level
+        int powerChance = Math.max(1, basePower - (level - 1) / 3); // slight decrease over time
+
+        // normalize so they sum to <= 100
+        int total = wallChance + pelletChance + powerChance;
+        if (total > 100) {
+            float scale = 100f / total;
+            wallChance = Math.max(0, Math.round(wallChance * scale));
+            pelletChance = Math.max(0, Math.round(pelletChance * scale));
+            powerChance = Math.max(0, 100 - wallChance - pelletChance);
+        }
+
+        // populate board using a single roll per cell. The cells are split into bands of whole bitset
+        // words so bands never write to the same word, each band gets its own generator split off
+        // the seed in band order, and then the bands are filled in parallel
+        long start = System.nanoTime();
+        int bands = (words + BAND_WORDS - 1) / BAND_WORDS;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] bandRandoms = new SplittableRandom[bands];
+        for (int band = 0; band < bands; band++) {
+            bandRandoms[band] = root.split();
+        }
+        int wallBelow = wallChance;
+        int powerBelow = wallChance + powerChance;
+        int pelletBelow = wallChance + powerChance + pelletChance;
+        if (bands == 1) {
+            fillBand(0, bandRandoms[0], wallBelow, powerBelow, pelletBelow); // not worth a parallel stream
+        } else {
+            IntStream.range(0, bands).parallel()
+                    .forEach(band -> fillBand(band, bandRandoms[band], wallBelow, powerBelow, pelletBelow));
+        }
+        this.generationNanos = System.nanoTime() - start;
+
+        // Place pacman on the board at the specified starting location
+        this.pacman = Coords.fromLocation(pacmanLocation);
+        int py = pacmanLocation.getY();
+        int px = pacmanLocation.getX();
+        int pacmanCell = -1;
+        if (py >= 0 && py < size && px >= 0 && px < size) {
+            // pacman's starting cell is always cleared, even if a wall was rolled there
+            pacmanCell = py * size + px;
+            clear(walls, pacmanCell);
+            clear(pellets, pacmanCell);
+            clear(powers, pacmanCell);
+        }
+        updateDistances();
+        if (pacmanCell >= 0) {
+            // walls can shut pacman into a corner with few or no pellets, which would end the level as soon as it
+            // starts. Dig through to the nearest pellets outside until there are enough within reach
+            while (reachablePellets() < MIN_PELLETS && carveToPellet(pacmanCell)) {
+                updateDistances();
+            }
+            // drop the pellets pacman could never reach according to the flood fill, so every level can be cleared
+            removeUnreachable(pellets);
+            removeUnreachable(powers);
+            if (popCount(pellets) == 0) {
+                placePellet(pacmanCell); // none rolled on the whole board
+            }
+        }
+        this.pelletCount = popCount(pellets);
+
+        // ghosts spawn on distinct open cells picked straight from the free cell index
+        this.startCell = pacmanCell;
+        int[] freeCells = freeCells();
+        int freeCellCount = freeCells.length;
+        ghosts = new Ghost[Math.min(level, freeCellCount)];
+        ghostIndex = new GhostIndex(ghosts.length);
+        for (int i = 0; i < ghosts.length; i++) {
+            // partial shuffle, each pick is swapped to the back so it can't be picked again
+            int pick = random.nextInt(freeCellCount - i);
+            int cell = freeCells[pick];
+            freeCells[pick] = freeCells[freeCellCount - 1 - i];
+            freeCells[freeCellCount - 1 - i] = cell;
+            ghosts[i] = new Ghost(Coords.fromCell(cell, size), this, true);
+        }
+        if (Metrics.ENABLED) Metrics.BOARD_GENERATION.record(System.nanoTime() - constructed);
+    }
+
+    // rebuild a board from saved state, each ghost given as its cell and whether it is still alive
+    private Board(int size, int level, int pacman, long[] walls, long[] pellets, long[] powers,
+                  int[] ghostCells, boolean[] ghostsAlive) {
+        this.size = size;
+        this.level = level;
+        this.pacman = pacman;
+        this.walls = walls;
+        this.pellets = pellets;
+        this.powers = powers;
+        this.pelletCount = popCount(pellets);
+        this.generationNanos = 0;
+        this.startCell = Coords.withinBounds(pacman, size) ? Coords.cell(pacman, size) : -1;
+        this.ghosts = new Ghost[ghostCells.length];
+        this.ghostIndex = new GhostIndex(ghosts.length);
+        for (int i = 0; i < ghosts.length; i++) {
+            ghosts[i] = new Ghost(Coords.fromCell(ghostCells[i], size), this, ghostsAlive[i]);
+        }
+    }
+
+    private int[] freeCells() {
+        if (freeCells == null) {
+            int[] cells = new int[size * size - popCount(walls) - (startCell >= 0 ? 1 : 0)];
+            int free = 0;
+            for (int cell = 0; cell < size * size; cell++) {
+                if (cell != startCell && !test(walls, cell)) {
+                    cells[free++] = cell;
+                }
+            }
+            freeCells = cells;
+        }
+        return freeCells;
+    }
+
+    private static final int SAVE_MAGIC = 0x504D5356; // "PMSV"
+    // version 1 saved a killed ghost as cell -1, version 2 keeps its cell and a separate alive flag
+    private static final byte SAVE_VERSION = 2;
+
+    // bytes save() will write for this board
+    public int savedSize() {
+        return 4 + 1 + 6 * 4 + 1 + 4 + ghosts.length * 5 + 4 + walls.length * 3 * 8;
+    }
+
+    /**
+     * Write the full game state at the buffer's position: header, pacman, score and immunity, the cell
+     * index and an alive flag per ghost, then the wall, pellet and power bitsets as raw words.
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(SAVE_MAGIC);
+        out.put(SAVE_VERSION);
+        out.putInt(size);
+        out.putInt(level);
+        out.putInt(score);
+        out.putInt(Coords.x(pacman));
+        out.putInt(Coords.y(pacman));
+        out.putInt(immunityClock);
+        out.put((byte) ((immune ? 1 : 0) | (gameOver ? 2 : 0)));
+        out.putInt(ghosts.length);
+        for (Ghost ghost : ghosts) {
+            out.putInt(Coords.cell(ghost.getCoords(), size));
+            out.put((byte) (ghost.isAlive() ? 1 : 0));
+        }
+        out.putInt(walls.length);
+        out.asLongBuffer().put(walls).put(pellets).put(powers);
+        out.position(out.position() + walls.length * 3 * 8);
+    }
+
+    // read a board written by save(), listeners are not part of the saved state
+    public static Board load(ByteBuffer in) {
+        if (in.getInt() != SAVE_MAGIC) {
+            throw new IllegalArgumentException("Not a saved board at position " + (in.position() - 4));
+        }
+        byte version = in.get();
+        if (version != 1 && version != SAVE_VERSION) {
+            throw new IllegalArgumentException("Unsupported save version " + version);
+        }
+        int size = in.getInt();
+        int level = in.getInt();
+        int score = in.getInt();
+        int pacman = Coords.pack(in.getInt(), in.getInt());
+        int immunityClock = in.getInt();
+        byte flags = in.get();
+        int[] ghostCells = new int[in.getInt()];
+        boolean[] ghostsAlive = new boolean[ghostCells.length];
+        for (int i = 0; i < ghostCells.length; i++) {
+            ghostCells[i] = in.getInt();
+            if (version == 1) {
+                // where a killed ghost died wasn't saved, it only needs some cell
+                ghostsAlive[i] = ghostCells[i] >= 0;
+                if (!ghostsAlive[i]) ghostCells[i] = Coords.withinBounds(pacman, size) ? Coords.cell(pacman, size) : 0;
+            } else {
+                ghostsAlive[i] = in.get() != 0;
+            }
+        }
+        int words = in.getInt();
+        if (words != (size * size + 63) >>> 6) {
+            throw new IllegalArgumentException("Saved board has " + words + " words for size " + size);
+        }
+        long[] walls = new long[words];
+        long[] pellets = new long[words];
+        long[] powers = new long[words];
+        in.asLongBuffer().get(walls).get(pellets).get(powers);
+        in.position(in.position() + words * 3 * 8);
+
+        Board board = new Board(size, level, pacman, walls, pellets, powers, ghostCells, ghostsAlive);
+        board.score = score;
+        board.immunityClock = immunityClock;
+        board.immune = (flags & 1) != 0;
+        board.gameOver = (flags & 2) != 0;
+        return board;
+    }
+
+    private int reachablePellets() {
+        int count = 0;
+        for (int w = 0; w < pellets.length; w++) {
+            long word = pellets[w];
+            while (word != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (distances[cell] != UNREACHABLE) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // clear the walls on a shortest path from pacman's cell to the nearest pellet pacman can't reach yet,
+    // false if there is no such pellet. Walls don't stop this search, only the path matters
+    private boolean carveToPellet(int from) {
+        int[] previous = new int[size * size];
+        Arrays.fill(previous, -1);
+        previous[from] = from;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (test(pellets, cell) && distances[cell] == UNREACHABLE) {
+                for (int c = cell; c != from; c = previous[c]) {
+                    clear(walls, c);
+                }
+                return true;
+            }
+            int x = cell % size;
+            if (x > 0) tail = visitThroughWalls(previous, cell, cell - 1, tail);
+            if (x < size - 1) tail = visitThroughWalls(previous, cell, cell + 1, tail);
+            if (cell >= size) tail = visitThroughWalls(previous, cell, cell - size, tail);
+            if (cell < size * (size - 1)) tail = visitThroughWalls(previous, cell, cell + size, tail);
+        }
+        return false;
+    }
+
+    private int visitThroughWalls(int[] previous, int from, int cell, int tail) {
+        if (previous[cell] >= 0) return tail;
+        previous[cell] = from;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    // put a pellet on the reachable cell furthest from pacman, opening up a neighbour first if pacman is walled in
+    private void placePellet(int from) {
+        int furthest = -1;
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (cell != from && distances[cell] != UNREACHABLE && (furthest < 0 || distances[cell] > distances[furthest])) {
+                furthest = cell;
+            }
+        }
+        if (furthest < 0) {
+            if (size * size == 1) {
+                return; // nowhere to put one
+            }
+            furthest = from % size < size - 1 ? from + 1 : from - 1;
+            clear(walls, furthest);
+            updateDistances();
+        }
+        clear(powers, furthest);
+        set(pellets, furthest);
+    }
+
+    private void removeUnreachable(long[] set) {
+        for (int w = 0; w < set.length; w++) {
+            long word = set[w];
+            while (word != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (distances[cell] == UNREACHABLE) {
+                    clear(set, cell);
+                }
+            }
+        }
+    }
+
+    // number of open cells other than pacman's starting cell
+    public int getFreeCellCount() {
+        return freeCells().length;
+    }
+
+    // a uniformly random open cell other than pacman's starting cell, or null if there are none
+    public Location randomFreeCell(Random random) {
+        int[] cells = freeCells();
+        if (cells.length == 0) {
+            return null;
+        }
+        int cell = cells[random.nextInt(cells.length)];
+        return new Location(cell % size, cell / size);
+    }
+
+    // roll every cell of one band, the thresholds are cumulative percentages
+    private void fillBand(int band, SplittableRandom random, int wallBelow, int powerBelow, int pelletBelow) {
+        int first = band * BAND_WORDS * 64;
+        int last = Math.min(size * size, first + BAND_WORDS * 64);
+        for (int cell = first; cell < last; cell++) {
+            int roll = random.nextInt(100); // 0..99
+            if (roll < wallBelow) {
+                set(walls, cell);
+            } else if (roll < powerBelow) {
+                set(powers, cell);
+            } else if (roll < pelletBelow) {
+                set(pellets, cell);
+            }
+        }
+    }
+
+    // the layout as generated, for SharedBoard to build its regions from. Not to be written to
+    long[] wallBits() {
+        return walls;
+    }
+
+    long[] pelletBits() {
+        return pellets;
+    }
+
+    long[] powerBits() {
+        return powers;
+    }
+
+    // how long filling in the cells took when this board was created
+    public long getGenerationNanos() {
+        return generationNanos;
+    }
+
+    // breadth first search outwards from pacman, walls and cells pacman can't reach stay UNREACHABLE
+    private void updateDistances() {
+        if (distances == null) {
+            distances = new int[size * size];
+            queue = new int[size * size];
+        }
+        distancesStale = false;
+        Arrays.fill(distances, UNREACHABLE);
+        if (!Coords.withinBounds(pacman, size)) return;
+        int head = 0;
+        int tail = 0;
+        int start = Coords.cell(pacman, size);
+        distances[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distances[cell] + 1;
+            int x = cell % size;
+            if (x > 0) tail = visit(cell - 1, next, tail);
+            if (x < size - 1) tail = visit(cell + 1, next, tail);
+            if (cell >= size) tail = visit(cell - size, next, tail);
+            if (cell < size * (size - 1)) tail = visit(cell + size, next, tail);
+        }
+    }
+
+    private int visit(int cell, int distance, int tail) {
+        if (distances[cell] != UNREACHABLE || test(walls, cell)) return tail;
+        distances[cell] = distance;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    // number of steps pacman is away from (x, y), or UNREACHABLE for walls and cut off cells
+    public int distanceToPacman(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) return UNREACHABLE;
+        if (distancesStale) updateDistances();
+        return distances[y * size + x];
+    }
+
+    private static boolean test(long[] set, int cell) {
+        return (set[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] set, int cell) {
+        set[cell >>> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] set, int cell) {
+        set[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private static int popCount(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // the character drawBoard shows for a cell, ignoring ghosts
+    private char charAt(int x, int y) {
+        int cell = y * size + x;
+        char c = cellChar(test(walls, cell), test(powers, cell), test(pellets, cell));
+        return c == '*' && pacman == Coords.pack(x, y) ? 'P' : c;
+    }
+
+    // the one alphabet for a cell's contents, shared by drawBoard, TerminalRenderer and the
+    // GameSession protocol: # wall, l power pellet, . pellet, * empty
+    static char cellChar(boolean wall, boolean power, boolean pellet) {
+        if (wall) return '#';
+        if (power) return 'l';
+        if (pellet) return '.';
+        return '*';
+    }
+
+    // the whole-board queries below list grid cells, not pixels
+    public ArrayList<Location> getObstacles() {
+        return getChars(walls);
+    }
+
+
+    public ArrayList<Location> getPellets() {
+        return getChars(pellets);
+    }
+
+    public ArrayList<Location> getPowerups() {
+        return getChars(powers);
+    }
+
+    private ArrayList<Location> getChars(long[] set) {
+        // walk the set bits word by word, so empty stretches of the board cost nothing
+        ArrayList<Location> result = new ArrayList<>(popCount(set));
+        for (int w = 0; w < set.length; w++) {
+            long word = set[w];
+            while (word != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                result.add(new Location(cell % size, cell / size));
+            }
+        }
+        return result;
+    }
+
+    public String drawBoard() {
+        // generate the boards ascii representation
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                char aChar = charAt(x, y);
+                if (isGhostAt(x, y)) {
+                    sb.append("\uD83D\uDC7B");
+                } else if (aChar != 'P') {
+                    sb.append(aChar); //Append regular characters to array
+                } else {
+                    sb.append("🙃"); // I can't store the emoji in the char array since this is technically a string
+                }
+            }
+            sb.append('\n'); // New line after each row
+        }
+        return sb.toString(); // Return the complete board as a string
+    }
+
+    // a new Location every call, getPacmanX() and getPacmanY() don't allocate
+    public Location getPacman() {
+        return Coords.toLocation(pacman);
+    }
+
+    public int getPacmanX() {
+        return Coords.x(pacman);
+    }
+
+    public int getPacmanY() {
+        return Coords.y(pacman);
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isEmpty(Location location) {
+        return isOpen(location.getX(), location.getY());
+    }
+
+    // true if at least one live ghost stands on the cell
+    public boolean isGhostAt(int x, int y) {
+        return ghostsAt(x, y) > 0;
+    }
+
+    public int ghostsAt(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            return 0;
+        }
+        return ghostIndex.count(y * size + x);
+    }
+
+    // Ghost calls these whenever a live ghost appears, moves or dies so the index stays in step
+    void ghostEntered(int coords) {
+        if (Coords.withinBounds(coords, size)) {
+            ghostIndex.add(Coords.cell(coords, size));
+        }
+    }
+
+    void ghostLeft(int coords) {
+        if (Coords.withinBounds(coords, size)) {
+            ghostIndex.remove(Coords.cell(coords, size));
+        }
+    }
+
+    // same as isEmpty without needing a Location
+    public boolean isOpen(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size && !test(walls, y * size + x);
+    }
+
+    // true if the location holds a pellet or a power pellet
+    public boolean hasPellet(Location location) {
+        return hasPellet(location.getX(), location.getY());
+    }
+
+    public boolean hasPellet(int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            return false;
+        }
+        int cell = y * size + x;
+        return test(pellets, cell) || test(powers, cell);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // copy the current state out for a renderer running on another thread. The walls never change
+    // so that array is shared, pellets and power pellets are copied
+    public BoardSnapshot snapshot(long tick) {
+        int[] ghostCells = new int[ghosts.length * 2];
+        for (int g = 0; g < ghosts.length; g++) {
+            boolean alive = ghosts[g].isAlive();
+            ghostCells[2 * g] = alive ? ghosts[g].getX() : -1;
+            ghostCells[2 * g + 1] = alive ? ghosts[g].getY() : -1;
+        }
+        return new BoardSnapshot(tick, size, walls, pellets.clone(), powers.clone(), Coords.x(pacman), Coords.y(pacman),
+                ghostCells, immune, gameOver, score, pelletCount);
+    }
+
+    public boolean isImmune() {
+        return immune;
+    }
+
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+    // Attempt to move Pacman in the specified direction
+    public boolean move(Direction direction) {
+        if (!Metrics.ENABLED) {
+            return moveUntimed(direction);
+        }
+        long start = System.nanoTime();
+        boolean moved = moveUntimed(direction);
+        Metrics.BOARD_MOVE.record(System.nanoTime() - start);
+        return moved;
+    }
+
+    private boolean moveUntimed(Direction direction) {
+        if (direction == null) {
+            return false;
+        }
+        tickImmunity();
+        // tries to move pacman in the given direction returns true if successful false if the movement resulted in a collision
+        // if moving was successful then ghosts are also moved
+        int newLocation = Coords.move(pacman, direction);
+        // perform some bounds checking and return early if we're out of bounds
+        if (!Coords.withinBounds(newLocation, size)) return false;
+        int cell = Coords.cell(newLocation, size);
+        if (test(walls, cell)) return false;
+        // if we land on a pellet increase the score   
+        int x = Coords.x(newLocation);
+        int y = Coords.y(newLocation);
+        if  (test(pellets, cell)) {
+            score += 1;
+            pelletCount -= 1;
+            clear(pellets, cell);
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).pelletEaten(x, y);
+                listeners.get(i).cellChanged(x, y);
+            }
+        }
+        if  (test(powers, cell)) {
+            immune = true;
+            immunityClock = 5;
+            clear(powers, cell);
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).powerupEaten(x, y);
+                listeners.get(i).cellChanged(x, y);
+            }
+        }
+        int oldLocation = pacman;
+        pacman = newLocation; // Update pacman's location, the old cell is left empty
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).pacmanMoved(Coords.x(oldLocation), Coords.y(oldLocation), x, y);
+        }
+        distancesStale = true;
+        moveGhosts();
+        return true;
+    }
+
+    // Advance the game by one tick of real time: pacman tries to move and the ghosts move
+    // whether or not he managed to, so they keep chasing while the player stands still
+    public void tick(Direction direction) {
+        if (direction != null && move(direction)) {
+            return;
+        }
+        if (direction == null) {
+            tickImmunity(); // move already counted this tick down
+        }
+        moveGhosts();
+    }
+
+    /**
+     * Same as move(), but remembers everything the move changes so unmakeMove() can take it back.
+     * Calls may be nested to any depth and must be undone in reverse order. Listeners hear about
+     * the move but not about the undo.
+     */
+    public boolean makeMove(Direction direction) {
+        pushUndo(direction);
+        return move(direction);
+    }
+
+    // Same as tick(), undone by unmakeMove() as well
+    public void makeTick(Direction direction) {
+        pushUndo(direction);
+        tick(direction);
+    }
+
+    private void pushUndo(Direction direction) {
+        int ints = undoDepth * UNDO_INTS;
+        int locations = undoDepth * (1 + ghosts.length);
+        if (ints + UNDO_INTS > undoInts.length) {
+            undoInts = Arrays.copyOf(undoInts, undoInts.length * 2);
+        }
+        if (locations + 1 + ghosts.length > undoCoords.length) {
+            undoCoords = Arrays.copyOf(undoCoords, Math.max(undoCoords.length * 2, locations + 1 + ghosts.length));
+        }
+        // the only cell contents a move can change are pellets or power pellets where pacman lands
+        int cell = -1;
+        if (direction != null) {
+            int x = Coords.x(pacman) + direction.dx();
+            int y = Coords.y(pacman) + direction.dy();
+            if (x >= 0 && x < size && y >= 0 && y < size) {
+                cell = y * size + x;
+            }
+        }
+        int flags = (immune ? 1 : 0) | (gameOver ? 2 : 0);
+        if (cell >= 0) {
+            flags |= (test(pellets, cell) ? 4 : 0) | (test(powers, cell) ? 8 : 0);
+        }
+        undoInts[ints] = cell;
+        undoInts[ints + 1] = flags;
+        undoInts[ints + 2] = score;
+        undoInts[ints + 3] = pelletCount;
+        undoInts[ints + 4] = immunityClock;
+        undoCoords[locations] = pacman;
+        for (int g = 0; g < ghosts.length; g++) {
+            undoCoords[locations + 1 + g] = ghosts[g].isAlive() ? ghosts[g].getCoords() : KILLED;
+        }
+        undoDepth++;
+    }
+
+    // take back the most recent makeMove() or makeTick()
+    public void unmakeMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        undoDepth--;
+        int ints = undoDepth * UNDO_INTS;
+        int locations = undoDepth * (1 + ghosts.length);
+        int cell = undoInts[ints];
+        int flags = undoInts[ints + 1];
+        if (cell >= 0) {
+            if ((flags & 4) != 0) set(pellets, cell);
+            if ((flags & 8) != 0) set(powers, cell);
+        }
+        immune = (flags & 1) != 0;
+        gameOver = (flags & 2) != 0;
+        score = undoInts[ints + 2];
+        pelletCount = undoInts[ints + 3];
+        immunityClock = undoInts[ints + 4];
+        if (pacman != undoCoords[locations]) {
+            pacman = undoCoords[locations];
+            distancesStale = true;
+        }
+        for (int g = 0; g < ghosts.length; g++) {
+            int coords = undoCoords[locations + 1 + g];
+            ghosts[g].restore(coords, coords != KILLED);
+        }
+    }
+
+    private void tickImmunity() {
+        if (immune) {
+            immunityClock--;
+            if (immunityClock == 0) {
+                immune = false;
+            }
+        }
+    }
+
+    private void moveGhosts() {
+        boolean wasGameOver = gameOver;
+        int x = Coords.x(pacman);
+        int y = Coords.y(pacman);
+        for (int g = 0; g < ghosts.length; g++) { // calculate the ghost's moves
+            Ghost ghost = ghosts[g];
+            if (!ghost.isAlive()) continue;
+            int from = ghost.getCoords();
+            ghost.move();
+            int to = ghost.getCoords();
+            if (to != from) {
+                for (int i = 0; i < listeners.size(); i++) {
+                    listeners.get(i).ghostMoved(g, Coords.x(from), Coords.y(from), Coords.x(to), Coords.y(to));
+                }
+            }
+            if (to == pacman) {
+                if (!immune) {
+                    gameOver = true;
+                } else {
+                    ghost.kill();
+                    for (int i = 0; i < listeners.size(); i++) {
+                        listeners.get(i).ghostKilled(g, x, y);
+                    }
+                }
+            }
+        }
+        if (gameOver && !wasGameOver) {
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).gameOver();
+            }
+        }
+    }
+
+    public int getScore() { // method to get the current score
+        return score;
+        
+    }
+
+    public int getPelletCount() { // returns the current number of pellets on the board
+        return pelletCount;
+    }   
+
+    public int leveltracking () { // returns the current level based on score
+        level = 1;
+        if (pelletCount == 0) {
+            return level + 1; 
+        }
+        return 1;
+        
+    }
+
+    // every ghost the board was made with, killed ones included, in the order of the ghost
+    // indices BoardListener reports
+    public int getGhostCount() {
+        return ghosts.length;
+    }
+
+    public Ghost getGhost(int index) {
+        return ghosts[index];
+    }
+
+    // live ghosts only
+    public ArrayList<Location> getGhosts() {
+        ArrayList<Location> result = new ArrayList<>(ghosts.length);
+        for (Ghost g: ghosts) {
+            if (!g.isAlive()) continue;
+            result.add(g.getGhostLocation());
+        }
+        return result;
+    }
+}
+
@@ -0,0 +1,22 @@
+package pacman;
+
+// Receives the changes a Board makes while it ticks, so views can update only what moved
+// instead of rescanning the whole grid. All coordinates are grid cells, not pixels.
+public interface BoardListener {
+    // the contents of a cell changed (a pellet or power pellet was removed from it)
+    default void cellChanged(int x, int y) {}
+
+    default void pelletEaten(int x, int y) {}
+
+    default void powerupEaten(int x, int y) {}
+
+    default void pacmanMoved(int fromX, int fromY, int toX, int toY) {}
+
+    // ghost is the ghost's slot on the board, as in Board.getGhost(ghost). Slots never change and killed
+    // ghosts keep theirs, so after a kill they no longer line up with Board.getGhosts(), which skips the dead
+    default void ghostMoved(int ghost, int fromX, int fromY, int toX, int toY) {}
+
+    default void ghostKilled(int ghost, int x, int y) {}
+
+    default void gameOver() {}
+}
@@ -0,0 +1,105 @@
+package pacman;
+
+// An immutable copy of everything needed to draw one tick of a Board, so a renderer on another
+// thread can read it without locking while the simulation carries on.
+public final class BoardSnapshot {
+    private final long tick;
+    private final int size;
+    private final long[] walls;
+    private final long[] pellets;
+    private final long[] powers;
+    private final int pacmanX;
+    private final int pacmanY;
+    private final int[] ghosts; // x, y pairs, -1 for ghosts that were killed
+    private final boolean immune;
+    private final boolean gameOver;
+    private final int score;
+    private final int pelletCount;
+
+    BoardSnapshot(long tick, int size, long[] walls, long[] pellets, long[] powers, int pacmanX, int pacmanY,
+                  int[] ghosts, boolean immune, boolean gameOver, int score, int pelletCount) {
+        this.tick = tick;
+        this.size = size;
+        this.walls = walls;
+        this.pellets = pellets;
+        this.powers = powers;
+        this.pacmanX = pacmanX;
+        this.pacmanY = pacmanY;
+        this.ghosts = ghosts;
+        this.immune = immune;
+        this.gameOver = gameOver;
+        this.score = score;
+        this.pelletCount = pelletCount;
+    }
+
+    private static boolean test(long[] set, int size, int x, int y) {
+        if (x < 0 || x >= size || y < 0 || y >= size) return false;
+        int cell = y * size + x;
+        return (set[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public boolean isWall(int x, int y) {
+        return test(walls, size, x, y);
+    }
+
+    public boolean hasPellet(int x, int y) {
+        return test(pellets, size, x, y);
+    }
+
+    public boolean hasPowerup(int x, int y) {
+        return test(powers, size, x, y);
+    }
+
+    // the cell's contents in Board's alphabet, see Board.cellChar, pacman and the ghosts aren't included
+    public char charAt(int x, int y) {
+        return Board.cellChar(isWall(x, y), hasPowerup(x, y), hasPellet(x, y));
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getPacmanX() {
+        return pacmanX;
+    }
+
+    public int getPacmanY() {
+        return pacmanY;
+    }
+
+    public int getGhostCount() {
+        return ghosts.length / 2;
+    }
+
+    public boolean isGhostAlive(int ghost) {
+        return ghosts[2 * ghost] >= 0;
+    }
+
+    public int getGhostX(int ghost) {
+        return ghosts[2 * ghost];
+    }
+
+    public int getGhostY(int ghost) {
+        return ghosts[2 * ghost + 1];
+    }
+
+    public boolean isImmune() {
+        return immune;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getPelletCount() {
+        return pelletCount;
+    }
+}
@@ -0,0 +1,48 @@
+package pacman;
+
+// The top left cell of a view onto a board that may be bigger than the view. It scrolls only once
+// the followed cell gets within margin cells of the view's edge and never shows past the board.
+public class Camera {
+    private final int margin;
+    private int x;
+    private int y;
+
+    public Camera(int margin) {
+        this.margin = margin;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void reset() {
+        x = 0;
+        y = 0;
+    }
+
+    // keep (targetX, targetY) in a view of columns x rows cells, returns true if the camera moved
+    public boolean follow(int targetX, int targetY, int columns, int rows, int size) {
+        int newX = followAxis(x, targetX, columns, size);
+        int newY = followAxis(y, targetY, rows, size);
+        if (newX == x && newY == y) {
+            return false;
+        }
+        x = newX;
+        y = newY;
+        return true;
+    }
+
+    private int followAxis(int camera, int target, int visible, int size) {
+        int axisMargin = Math.min(margin, (visible - 1) / 2);
+        if (target < camera + axisMargin) {
+            camera = target - axisMargin;
+        } else if (target >= camera + visible - axisMargin) {
+            camera = target - visible + axisMargin + 1;
+        }
+        return Math.max(0, Math.min(camera, size - visible));
+    }
+}
@@ -0,0 +1,64 @@
+package pacman;
+
+// Grid coordinates packed into a single int, x in the low 16 bits and y in the high 16 bits. Both
+// halves are signed so a step off the edge of the board (-1) still packs and unpacks. The engine
+// passes these around instead of Location objects so a tick allocates nothing; Location is only
+// there for callers outside the engine.
+public final class Coords {
+    // the largest coordinate that fits, so the largest board side that can be packed
+    public static final int MAX = Short.MAX_VALUE;
+
+    private Coords() {
+    }
+
+    public static int pack(int x, int y) {
+        return (y << 16) | (x & 0xFFFF);
+    }
+
+    public static int x(int coords) {
+        return (short) coords;
+    }
+
+    public static int y(int coords) {
+        return coords >> 16;
+    }
+
+    // the neighbouring coordinates one step in the given direction
+    public static int move(int coords, Direction direction) {
+        return pack(x(coords) + direction.dx(), y(coords) + direction.dy());
+    }
+
+    public static boolean withinBounds(int coords, int size) {
+        int x = x(coords);
+        int y = y(coords);
+        return x >= 0 && x < size && y >= 0 && y < size;
+    }
+
+    // index into a size * size grid, only meaningful within bounds
+    public static int cell(int coords, int size) {
+        return y(coords) * size + x(coords);
+    }
+
+    public static int fromCell(int cell, int size) {
+        return pack(cell % size, cell / size);
+    }
+
+    // steps apart when moving only up, down, left and right
+    public static int manhattan(int a, int b) {
+        return Math.abs(x(a) - x(b)) + Math.abs(y(a) - y(b));
+    }
+
+    public static double distance(int a, int b) {
+        int dx = x(a) - x(b);
+        int dy = y(a) - y(b);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public static int fromLocation(Location location) {
+        return pack(location.getX(), location.getY());
+    }
+
+    public static Location toLocation(int coords) {
+        return new Location(x(coords), y(coords));
+    }
+}
@@ -0,0 +1,26 @@
+package pacman;
+
+public enum Direction {
+    UP(0, -1),
+    DOWN(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0);
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    // change in x when stepping this way
+    public int dx() {
+        return dx;
+    }
+
+    // change in y when stepping this way, y grows downwards
+    public int dy() {
+        return dy;
+    }
+}
@@ -0,0 +1,158 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Runs a Board at a fixed tick rate on its own thread. Input is queued from any thread (usually the
+// key listener) and the direction last asked for is kept between ticks. After every tick an immutable
+// BoardSnapshot is published for renderers to pick up without locking.
+public class GameLoop {
+    private final Board board;
+    private final long tickNanos;
+    private final Consumer<BoardSnapshot> onTick;
+    private final ConcurrentLinkedQueue<Direction> input = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile BoardSnapshot snapshot;
+    private Direction direction; // only touched by the loop thread
+    private ReplayRecorder recorder; // null once the replay has been written
+    private FileChannel replays;
+    private PacmanPolicy autopilot;
+
+    // tick metrics, written by the loop thread only
+    private volatile long ticks;
+    private volatile long overruns; // ticks that finished after the next one was due
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private volatile long totalTickNanos;
+
+    // onTick is called on the loop thread after each tick with the new snapshot, it should return quickly
+    public GameLoop(Board board, int ticksPerSecond, Consumer<BoardSnapshot> onTick) {
+        this(board, ticksPerSecond, onTick, Thread.ofPlatform().name("game-loop").daemon(true));
+    }
+
+    // threads builds the loop thread, e.g. Thread.ofVirtual() when one process runs many loops
+    public GameLoop(Board board, int ticksPerSecond, Consumer<BoardSnapshot> onTick, Thread.Builder threads) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive");
+        }
+        this.board = board;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.onTick = onTick;
+        this.snapshot = board.snapshot(0);
+        this.thread = threads.unstarted(this::run);
+    }
+
+    // record every tick into a Replay.TICKS recorder and append the replay to the archive once the
+    // board is over or cleared, call before start(). A loop stopped part way through writes nothing
+    public void setRecorder(ReplayRecorder recorder, FileChannel replays) {
+        this.recorder = recorder;
+        this.replays = replays;
+    }
+
+    // let a policy steer pacman instead of the queued input, call before start()
+    public void setAutopilot(PacmanPolicy autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public void submit(Direction direction) {
+        if (direction != null) {
+            input.offer(direction);
+        }
+    }
+
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long start = System.nanoTime();
+            Direction queued = autopilot != null ? autopilot.nextMove(board) : input.poll();
+            if (queued != null) {
+                direction = queued;
+            }
+            if (recorder != null) {
+                recorder.record(direction);
+            }
+            board.tick(direction);
+            if (recorder != null && (board.isGameOver() || board.getPelletCount() == 0)) {
+                saveReplay();
+            }
+            BoardSnapshot current = board.snapshot(ticks + 1);
+            snapshot = current;
+            onTick.accept(current);
+            long end = System.nanoTime();
+            record(end - start);
+
+            next += tickNanos;
+            if (end > next) {
+                // fell behind, count it and start again from now instead of trying to catch up
+                overruns++;
+                next = end;
+                continue;
+            }
+            long wait;
+            while (running && (wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    private void saveReplay() {
+        try {
+            ReplayArchive.append(replays, recorder.finish(board));
+        } catch (IOException e) {
+            System.err.println("Couldn't save the replay: " + e);
+        }
+        recorder = null;
+    }
+
+    private void record(long duration) {
+        lastTickNanos = duration;
+        totalTickNanos += duration;
+        if (duration > maxTickNanos) {
+            maxTickNanos = duration;
+        }
+        ticks++;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    public long getAverageTickNanos() {
+        long count = ticks;
+        return count == 0 ? 0 : totalTickNanos / count;
+    }
+}
@@ -0,0 +1,109 @@
+package pacman;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hosts independent games over TCP, one Board per connection. Every session runs on virtual threads
+// (tick loop, input reader and frame writer), so thousands of them fit in one JVM.
+//
+// The protocol is line based so it can be played with nc. Clients send one move per line
+// (u/d/l/r, q to quit). The server sends a full frame when a level starts and then one
+// delta frame per tick, see GameSession for the formats.
+// Usage: GameServer [port] [boardSize] [ticksPerSecond]
+// -Dpacman.replays=file appends a replay of every level played to an end, by every session
+public class GameServer implements AutoCloseable {
+    private final ServerSocket socket;
+    private final int boardSize;
+    private final int ticksPerSecond;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong(); // deltas skipped for slow clients, by every session
+    private volatile FileChannel replays; // shared by every session if set, see ReplayArchive
+
+    // port 0 picks a free port, see getPort()
+    public GameServer(int port, int boardSize, int ticksPerSecond) throws IOException {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive");
+        }
+        this.socket = new ServerSocket();
+        this.socket.setReuseAddress(true);
+        this.socket.bind(new InetSocketAddress(port), 1024);
+        this.boardSize = boardSize;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int ticksPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String replayFile = System.getProperty("pacman.replays");
+        try (GameServer server = new GameServer(port, size, ticksPerSecond);
+             FileChannel replays = replayFile == null ? null : ReplayArchive.openForAppend(Path.of(replayFile))) {
+            server.setReplays(replays);
+            System.out.println("listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    // sessions started after this record their levels, the server doesn't close the channel
+    public void setReplays(FileChannel replays) {
+        this.replays = replays;
+    }
+
+    FileChannel getReplays() {
+        return replays;
+    }
+
+    // accepts connections until close() is called
+    public void serve() throws IOException {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            long id = sessionIds.incrementAndGet();
+            GameSession session = new GameSession(this, client, id, boardSize, ticksPerSecond);
+            sessions.incrementAndGet();
+            Thread.ofVirtual().name("session-" + id).start(() -> {
+                try {
+                    session.run();
+                } finally {
+                    sessions.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.get();
+    }
+
+    // a session couldn't queue a frame for its client
+    void frameDropped() {
+        droppedFrames.incrementAndGet();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
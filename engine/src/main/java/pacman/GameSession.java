@@ -0,0 +1,238 @@
+package pacman;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+// One client of a GameServer. The connection's virtual thread reads moves, a GameLoop on another
+// virtual thread ticks the board, and a third virtual thread writes frames to the socket.
+//
+// Frames are single lines:
+//   F <tick> <level> <score> <immune> <size> <pacmanX> <pacmanY> <ghosts> (<ghostX> <ghostY>)* <row>*
+//     a whole level, rows top to bottom using # wall, . pellet, l power pellet, * empty (as drawBoard),
+//     killed ghosts are at -1 -1
+//   D <tick> <score> <immune> <event>*
+//     what changed in one tick: p x y (pacman moved), g i x y (ghost moved), e x y (cell emptied),
+//     k i (ghost killed), o (game over, the connection closes), w (level cleared, a new F follows)
+//
+// Slow clients get backpressure instead of an ever growing buffer: when too many frames are
+// waiting the deltas are dropped and the client gets a fresh full frame once it catches up. A client
+// that is still behind when its game ends is simply disconnected.
+public class GameSession implements BoardListener {
+    private static final int MAX_PENDING_FRAMES = 64;
+    private static final byte[] CLOSE = new byte[0];
+
+    private final GameServer server;
+    private final Socket socket;
+    private final long id;
+    private final int boardSize;
+    private final int ticksPerSecond;
+    private final ArrayBlockingQueue<byte[]> outgoing = new ArrayBlockingQueue<>(MAX_PENDING_FRAMES);
+    // only the latest move is kept, so a client flooding moves can't grow anything
+    private final AtomicReference<Direction> input = new AtomicReference<>();
+    private final StringBuilder delta = new StringBuilder(); // only touched by the loop thread
+    private volatile GameLoop loop;
+    private volatile boolean closed;
+    private boolean resync; // only touched by the loop thread
+    private int level = 1;
+    private Thread writer;
+
+    GameSession(GameServer server, Socket socket, long id, int boardSize, int ticksPerSecond) {
+        this.server = server;
+        this.socket = socket;
+        this.id = id;
+        this.boardSize = boardSize;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    // reads moves until the client quits or disconnects, runs on the connection's virtual thread
+    void run() {
+        try {
+            socket.setTcpNoDelay(true);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            writer = Thread.ofVirtual().name("session-" + id + "-writer").start(() -> write(out));
+            startLevel();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII));
+            String line;
+            while (!closed && (line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                char c = Character.toLowerCase(line.charAt(0));
+                if (c == 'q') {
+                    break;
+                }
+                Direction direction = switch (c) {
+                    case 'u' -> Direction.UP;
+                    case 'd' -> Direction.DOWN;
+                    case 'l' -> Direction.LEFT;
+                    case 'r' -> Direction.RIGHT;
+                    default -> null;
+                };
+                if (direction != null) {
+                    input.set(direction);
+                }
+            }
+        } catch (IOException e) {
+            // the client went away, fall through and clean up
+        } finally {
+            close();
+        }
+    }
+
+    // a fresh board and loop for the current level, called on the connection thread for the first
+    // level and on the old loop's thread for the ones after it
+    private void startLevel() {
+        long seed = System.nanoTime() ^ id;
+        Board board = new Board(boardSize, new Location(0, 0), seed, level);
+        board.addListener(this);
+        send(fullFrame(board.snapshot(0)));
+        GameLoop next = new GameLoop(board, ticksPerSecond, this::tick,
+                Thread.ofVirtual().name("session-" + id + "-level-" + level));
+        next.setAutopilot(b -> input.getAndSet(null));
+        FileChannel replays = server.getReplays();
+        if (replays != null) {
+            next.setRecorder(new ReplayRecorder(Replay.TICKS, boardSize, new Location(0, 0), seed, level), replays);
+        }
+        loop = next;
+        if (!closed) {
+            next.start();
+        }
+    }
+
+    // called on the loop thread once the board has ticked and its events are in delta
+    private void tick(BoardSnapshot snapshot) {
+        boolean cleared = snapshot.getPelletCount() == 0;
+        if (snapshot.isGameOver()) {
+            delta.append(" o");
+        } else if (cleared) {
+            delta.append(" w");
+        }
+        if (resync && !snapshot.isGameOver() && !cleared) {
+            // the client fell behind and missed deltas, send everything again once there is room
+            if (outgoing.remainingCapacity() > MAX_PENDING_FRAMES / 2 && send(fullFrame(snapshot))) {
+                resync = false;
+            } else {
+                server.frameDropped();
+            }
+        } else {
+            String header = "D " + snapshot.getTick() + " " + snapshot.getScore() + " "
+                    + (snapshot.isImmune() ? 1 : 0);
+            if (!send(header + delta)) {
+                resync = true;
+                server.frameDropped();
+            }
+        }
+        delta.setLength(0);
+
+        if (snapshot.isGameOver()) {
+            loop.stop();
+            finish();
+        } else if (cleared) {
+            loop.stop();
+            level++;
+            startLevel();
+        }
+    }
+
+    private boolean send(String frame) {
+        byte[] bytes = new byte[frame.length() + 1];
+        for (int i = 0; i < frame.length(); i++) {
+            bytes[i] = (byte) frame.charAt(i);
+        }
+        bytes[frame.length()] = '\n';
+        return outgoing.offer(bytes);
+    }
+
+    private String fullFrame(BoardSnapshot snapshot) {
+        int size = snapshot.getSize();
+        StringBuilder frame = new StringBuilder(64 + 8 * snapshot.getGhostCount() + size * (size + 1));
+        frame.append("F ").append(snapshot.getTick()).append(' ').append(level).append(' ')
+                .append(snapshot.getScore()).append(' ').append(snapshot.isImmune() ? 1 : 0).append(' ')
+                .append(size).append(' ').append(snapshot.getPacmanX()).append(' ').append(snapshot.getPacmanY())
+                .append(' ').append(snapshot.getGhostCount());
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            frame.append(' ').append(snapshot.getGhostX(i)).append(' ').append(snapshot.getGhostY(i));
+        }
+        for (int y = 0; y < size; y++) {
+            frame.append(' ');
+            for (int x = 0; x < size; x++) {
+                frame.append(snapshot.charAt(x, y));
+            }
+        }
+        return frame.toString();
+    }
+
+    // drains frames to the socket, flushing whenever the queue runs dry
+    private void write(OutputStream out) {
+        try {
+            while (true) {
+                byte[] frame = outgoing.take();
+                if (frame == CLOSE) {
+                    break;
+                }
+                out.write(frame);
+                if (outgoing.isEmpty()) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            // socket closed underneath us or the session was torn down
+        } finally {
+            close();
+        }
+    }
+
+    // sends whatever is queued and then closes, used when the game is over
+    private void finish() {
+        closed = true;
+        if (!outgoing.offer(CLOSE)) {
+            close(); // the client isn't reading, don't wait for it
+        }
+    }
+
+    private void close() {
+        closed = true;
+        GameLoop current = loop;
+        if (current != null) {
+            current.stop();
+        }
+        if (writer != null && Thread.currentThread() != writer) {
+            writer.interrupt();
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+    }
+
+    @Override
+    public void cellChanged(int x, int y) {
+        delta.append(" e ").append(x).append(' ').append(y);
+    }
+
+    @Override
+    public void pacmanMoved(int fromX, int fromY, int toX, int toY) {
+        delta.append(" p ").append(toX).append(' ').append(toY);
+    }
+
+    @Override
+    public void ghostMoved(int ghost, int fromX, int fromY, int toX, int toY) {
+        delta.append(" g ").append(ghost).append(' ').append(toX).append(' ').append(toY);
+    }
+
+    @Override
+    public void ghostKilled(int ghost, int x, int y) {
+        delta.append(" k ").append(ghost);
+    }
+}
@@ -0,0 +1,134 @@
+package pacman;
+
+public class Ghost {
+    private int coords; // packed, see Coords
+    private Board board;
+    private boolean alive;
+    // one of the board's own ghosts, only those are counted in its occupancy index
+    private final boolean tracked;
+    private static final Direction[] DIRECTIONS = Direction.values(); // values() copies the array on every call
+
+    // a ghost that chases pacman on the board without being one of its ghosts, so isGhostAt and
+    // drawBoard never see it. Board.getGhost gives the board's own
+    public Ghost(Location ghostLocation, Board board) {
+        this(Coords.fromLocation(ghostLocation), board, true, false);
+    }
+
+    // one of the board's ghosts, a ghost that is already dead still needs coordinates, use where it died (or any cell)
+    Ghost(int coords, Board board, boolean alive) {
+        this(coords, board, alive, true);
+    }
+
+    private Ghost(int coords, Board board, boolean alive, boolean tracked) {
+        this.coords = coords;
+        this.board = board;
+        this.alive = alive;
+        this.tracked = tracked;
+        if (alive && tracked) {
+            board.ghostEntered(coords);
+        }
+    }
+
+    // a killed ghost stays where it died but no longer moves or counts as standing anywhere
+    public void kill() {
+        if (alive) {
+            alive = false;
+            if (tracked) board.ghostLeft(coords);
+        }
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    // put the ghost back where it was, or kill it if it had been killed. Used to undo moves
+    void restore(int coords, boolean alive) {
+        if (!alive) {
+            kill();
+            return;
+        }
+        if (this.alive && coords == this.coords) {
+            return; // the usual case when undoing, nothing moved
+        }
+        if (this.alive && tracked) {
+            board.ghostLeft(this.coords);
+        }
+        this.coords = coords;
+        this.alive = true;
+        if (tracked) board.ghostEntered(coords);
+    }
+
+    // a new Location every call, the engine itself uses getCoords()
+    public Location getGhostLocation() {
+        return Coords.toLocation(coords);
+    }
+
+    public int getCoords() {
+        return coords;
+    }
+
+    public int getX() {
+        return Coords.x(coords);
+    }
+
+    public int getY() {
+        return Coords.y(coords);
+    }
+
+    public void move(Direction direction) {
+        if (direction == null || !alive) return;
+        int from = coords;
+        coords = Coords.move(coords, direction);
+        if (tracked) {
+            board.ghostLeft(from);
+            board.ghostEntered(coords);
+        }
+    }
+
+    public void move() {
+        this.move(this.computeMove());
+    }
+
+    public double eval(Direction direction) {
+        // walking distance to pacman after taking the given direction (null means staying put)
+        int x = Coords.x(coords);
+        int y = Coords.y(coords);
+        if (direction != null) {
+            x += direction.dx();
+            y += direction.dy();
+        }
+        return board.distanceToPacman(x, y);
+    }
+
+    public Direction computeMove() {
+        if (!Metrics.ENABLED) {
+            return computeMoveUntimed();
+        }
+        long start = System.nanoTime();
+        Direction move = computeMoveUntimed();
+        Metrics.GHOST_COMPUTE_MOVE.record(System.nanoTime() - start);
+        return move;
+    }
+
+    private Direction computeMoveUntimed() {
+        if (!alive) {
+            return null;
+        }
+        // look up the neighbours in the board's shared distance map, chase by walking downhill
+        // and flee by walking uphill while pacman is immune
+        boolean flee = board.isImmune();
+        int x = Coords.x(coords);
+        int y = Coords.y(coords);
+        int best = board.distanceToPacman(x, y);
+        Direction bestMove = null;
+        for (Direction direction : DIRECTIONS) {
+            int distance = board.distanceToPacman(x + direction.dx(), y + direction.dy());
+            if (distance == Board.UNREACHABLE) continue;
+            if (flee ? distance > best : distance < best) {
+                best = distance;
+                bestMove = direction;
+            }
+        }
+        return bestMove;
+    }
+}
@@ -0,0 +1,96 @@
+package pacman;
+
+// How many live ghosts stand on each cell, kept in a small open addressing hash keyed by cell index.
+// There are only ever a handful of ghosts (one per level) so this stays tiny even on boards where a
+// per-cell grid would cost megabytes, and every lookup or update is O(1).
+final class GhostIndex {
+    private int[] cells; // cell + 1, 0 marks a free slot
+    private int[] counts;
+    private int used;
+
+    GhostIndex(int ghosts) {
+        int capacity = Integer.highestOneBit(Math.max(4, ghosts * 2 - 1)) << 1;
+        cells = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    int count(int cell) {
+        int mask = cells.length - 1;
+        for (int slot = mix(cell) & mask; cells[slot] != 0; slot = (slot + 1) & mask) {
+            if (cells[slot] == cell + 1) {
+                return counts[slot];
+            }
+        }
+        return 0;
+    }
+
+    void add(int cell) {
+        if (2 * (used + 1) > cells.length) {
+            grow();
+        }
+        int mask = cells.length - 1;
+        int slot = mix(cell) & mask;
+        while (cells[slot] != 0 && cells[slot] != cell + 1) {
+            slot = (slot + 1) & mask;
+        }
+        if (cells[slot] == 0) {
+            cells[slot] = cell + 1;
+            used++;
+        }
+        counts[slot]++;
+    }
+
+    void remove(int cell) {
+        int mask = cells.length - 1;
+        int slot = mix(cell) & mask;
+        while (cells[slot] != cell + 1) {
+            if (cells[slot] == 0) {
+                return; // not indexed, e.g. a ghost that was moved off the board
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (--counts[slot] > 0) {
+            return;
+        }
+        // empty the slot and shift later entries of the same probe run back, so no lookup
+        // ever stops early at the hole
+        used--;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; cells[next] != 0; next = (next + 1) & mask) {
+            int home = mix(cells[next] - 1) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                cells[hole] = cells[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+        }
+        cells[hole] = 0;
+        counts[hole] = 0;
+    }
+
+    void move(int from, int to) {
+        if (from != to) {
+            remove(from);
+            add(to);
+        }
+    }
+
+    private void grow() {
+        int[] oldCells = cells;
+        int[] oldCounts = counts;
+        cells = new int[oldCells.length * 2];
+        counts = new int[oldCells.length * 2];
+        used = 0;
+        for (int slot = 0; slot < oldCells.length; slot++) {
+            for (int i = 0; i < oldCounts[slot]; i++) {
+                add(oldCells[slot] - 1);
+            }
+        }
+    }
+
+    // neighbouring cells would otherwise fill neighbouring slots and make long probe runs
+    private static int mix(int cell) {
+        int h = cell * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,122 @@
+package pacman;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// A lock-free histogram of durations that any number of threads can record into at once.
+// Buckets are log-linear: one group per power of two, each split into SUB_BUCKETS equal slices, so
+// a percentile is never off by more than 1/SUB_BUCKETS (about 6%) of the true value.
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BITS + 1) * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // nanoTime isn't guaranteed monotonic across cores on every platform
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long seen = max.get();
+        while (nanos > seen && !max.compareAndSet(seen, nanos)) {
+            seen = max.get();
+        }
+    }
+
+    // values below SUB_BUCKETS get a bucket each, above that the top SUB_BITS + 1 bits pick the bucket
+    private static int bucketOf(long value) {
+        int group = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        int slice = (int) (value >>> Math.max(0, group - 1)) & (SUB_BUCKETS - 1);
+        return group == 0 ? (int) value : group * SUB_BUCKETS + slice;
+    }
+
+    // the largest value that lands in the bucket
+    private static long highestIn(int bucket) {
+        int group = bucket / SUB_BUCKETS;
+        int slice = bucket % SUB_BUCKETS;
+        if (group == 0) {
+            return slice;
+        }
+        int shift = group - 1;
+        return (((long) (SUB_BUCKETS + slice) + 1) << shift) - 1;
+    }
+
+    // q between 0 and 1, e.g. 0.99 for p99
+    public long percentile(double q) {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length(); bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestIn(bucket), max.get());
+            }
+        }
+        return max.get(); // records landed while we were walking the buckets
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return percentile(0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    @Override
+    public long getMeanNanos() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : total.get() / recorded;
+    }
+
+    // not atomic with concurrent records, a few of them may be half counted
+    @Override
+    public void reset() {
+        for (int bucket = 0; bucket < buckets.length(); bucket++) {
+            buckets.set(bucket, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-18s count %10d  p50 %10d  p99 %10d  p99.9 %10d  max %10d  mean %10d (ns)",
+                name, getCount(), getP50Nanos(), getP99Nanos(), getP999Nanos(), getMaxNanos(), getMeanNanos());
+    }
+}
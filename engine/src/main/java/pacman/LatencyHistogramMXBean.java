@@ -0,0 +1,18 @@
+package pacman;
+
+// What a LatencyHistogram shows in jconsole / VisualVM, all times in nanoseconds
+public interface LatencyHistogramMXBean {
+    long getCount();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+
+    long getMeanNanos();
+
+    void reset();
+}
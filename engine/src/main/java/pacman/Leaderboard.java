@@ -0,0 +1,90 @@
+package pacman;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// The K best runs in a run log, highest score first, equal scores in the order they were played.
+// Built with one pass over the log that only keeps the current K, so start up costs a sequential
+// read of the file however many runs it holds, and after that new runs are offered as they finish.
+// Reading the board back is O(K) and never touches the file.
+public class Leaderboard {
+    private final int capacity;
+    private final RunLog.Run[] runs;
+    private final long[] indices; // where each run is in the log, breaks ties between equal scores
+    private int count;
+
+    public Leaderboard(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.runs = new RunLog.Run[capacity];
+        this.indices = new long[capacity];
+    }
+
+    public static Leaderboard build(RunLog log, int capacity) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(capacity);
+        log.forEach(leaderboard::offer);
+        return leaderboard;
+    }
+
+    // the lowest score that would still get onto the board, Integer.MIN_VALUE while it isn't full
+    public synchronized int threshold() {
+        return count < capacity ? Integer.MIN_VALUE : runs[count - 1].score();
+    }
+
+    // the run at the given index of the log, kept if it is among the best K; index must only grow
+    public synchronized boolean offer(long index, long seed, int level, int score, long ticks, long timestamp) {
+        // most runs of a long log fall below the board, they are turned away without allocating
+        if (count == capacity && score <= runs[count - 1].score()) {
+            return false;
+        }
+        int at = count == capacity ? count - 1 : count;
+        while (at > 0 && runs[at - 1].score() < score) {
+            at--;
+        }
+        int moved = Math.min(count, capacity - 1) - at;
+        System.arraycopy(runs, at, runs, at + 1, moved);
+        System.arraycopy(indices, at, indices, at + 1, moved);
+        runs[at] = new RunLog.Run(seed, level, score, ticks, timestamp);
+        indices[at] = index;
+        count = Math.min(count + 1, capacity);
+        return true;
+    }
+
+    // appends the run to the log and offers it, so the board and the file can't disagree
+    public boolean record(RunLog log, RunLog.Run run) throws IOException {
+        synchronized (log) {
+            long index = log.size();
+            log.append(run);
+            return offer(index, run.seed(), run.level(), run.score(), run.ticks(), run.timestamp());
+        }
+    }
+
+    // the best n runs, n no more than the capacity
+    public synchronized List<RunLog.Run> top(int n) {
+        int shown = Math.min(n, count);
+        List<RunLog.Run> best = new ArrayList<>(shown);
+        for (int i = 0; i < shown; i++) {
+            best.add(runs[i]);
+        }
+        return best;
+    }
+
+    // where the run at this position of the board is in the log
+    public synchronized long indexOf(int rank) {
+        if (rank < 0 || rank >= count) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + count);
+        }
+        return indices[rank];
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -1,10 +1,13 @@
-import java.awt.*;
+package pacman;
+
 import java.util.Random;
 
+// An (x, y) grid cell for callers outside the engine. The engine itself packs coordinates into an
+// int, see Coords, so moving things around doesn't allocate. Converting to pixels is up to the front
+// end, see Pixels in the Swing game.
 public class Location {
     int x; // x-coordinate of the location
     int y; // y-coordinate of the location
-    private static final int BLOCK_SIZE = Main.BLOCK_SIZE;
     //initializes the location with x and y values
     public Location(int x, int y) {
         this.x = x;
@@ -24,20 +27,9 @@ public class Location {
     }
 
     public double distance(Location location) {
-        return Math.sqrt(Math.pow(this.x - location.x, 2) + Math.pow(this.y - location.y, 2));
-    }
-
-    public static Location fromGridCoords(Location l) {
-        return new Location(l.getX()/BLOCK_SIZE, l.getY()/BLOCK_SIZE);
-    }
-
-    public static Location toGridCoords(Location l) {
-        return new Location(l.getX()*BLOCK_SIZE, l.getY()*BLOCK_SIZE);
-    }
-
-    public static Point toPoint(Location l) {
-        Location l2 = toGridCoords(l);
-        return new Point(l2.getX(), l2.getY());
+        int dx = this.x - location.x;
+        int dy = this.y - location.y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     //method for getting the x-coordinate
@@ -64,12 +56,7 @@ public class Location {
     }
 
     public Location move(Direction direction) {
-        return switch (direction) {
-            case UP -> this.up();
-            case DOWN -> this.down();
-            case LEFT -> this.left();
-            case RIGHT -> this.right();
-        };
+        return new Location(x + direction.dx(), y + direction.dy());
     }
 
     //method to check if the location is within the bounds of the board
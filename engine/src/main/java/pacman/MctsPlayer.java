@@ -0,0 +1,205 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Plays pacman with Monte Carlo tree search. The ghosts are deterministic, so the board itself is a
+// perfect model of what they will do and no guessing is needed. Search is root parallel: every worker
+// gets its own copy of the board (through save/load, so the real board and its listeners are never
+// touched), grows its own tree until the time budget runs out, and the visit counts of the first
+// moves are added up to pick the move. With a playout budget instead of a time budget the search, and
+// so every move, only depends on the board and the seed, however fast or busy the machine is.
+public class MctsPlayer implements PacmanPolicy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final long budgetNanos;
+    private final long budgetPlayouts; // 0 when searching against the clock
+    private final int workers;
+    private final int playoutDepth;
+    private final boolean ticks; // search with makeTick like GameLoop plays, or makeMove like BatchSimulator
+    private final SplittableRandom seeds;
+    private volatile long lastPlayouts;
+    private volatile long lastNanos;
+
+    // workers of 1 searches on the calling thread, more fork onto the common pool
+    public MctsPlayer(long budgetNanos, int workers, int playoutDepth, boolean ticks, long seed) {
+        this(budgetNanos, 0, workers, playoutDepth, ticks, seed);
+    }
+
+    private MctsPlayer(long budgetNanos, long budgetPlayouts, int workers, int playoutDepth, boolean ticks, long seed) {
+        this.budgetNanos = budgetNanos;
+        this.budgetPlayouts = budgetPlayouts;
+        this.workers = workers;
+        this.playoutDepth = playoutDepth;
+        this.ticks = ticks;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    // a fixed number of playouts per move shared out between the workers, for reproducible runs
+    public static MctsPlayer withPlayouts(long playouts, int workers, int playoutDepth, boolean ticks, long seed) {
+        if (playouts < workers) {
+            throw new IllegalArgumentException("Need at least one playout per worker");
+        }
+        return new MctsPlayer(0, playouts, workers, playoutDepth, ticks, seed);
+    }
+
+    private static class Node {
+        final Node[] children = new Node[DIRECTIONS.length];
+        long visits;
+        double value; // summed rewards of playouts through this node
+    }
+
+    @Override
+    public Direction nextMove(Board board) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long[] visits = new long[DIRECTIONS.length];
+        long playouts = 0;
+        ByteBuffer state = ByteBuffer.allocate(board.savedSize());
+        board.save(state);
+        if (workers == 1) {
+            Node root = search(Board.load(state.flip()), deadline, budgetPlayouts, seeds.split());
+            playouts = root.visits;
+            addVisits(root, visits);
+        } else {
+            ArrayList<ForkJoinTask<Node>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                SplittableRandom random = seeds.split();
+                ByteBuffer copy = state.duplicate().flip();
+                long share = budgetPlayouts / workers + (i < budgetPlayouts % workers ? 1 : 0);
+                tasks.add(ForkJoinPool.commonPool().submit(() -> search(Board.load(copy), deadline, share, random)));
+            }
+            for (ForkJoinTask<Node> task : tasks) {
+                Node root = task.join();
+                playouts += root.visits;
+                addVisits(root, visits);
+            }
+        }
+        lastPlayouts = playouts;
+        lastNanos = System.nanoTime() - start;
+
+        int best = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+        return DIRECTIONS[best];
+    }
+
+    private static void addVisits(Node root, long[] visits) {
+        for (int i = 0; i < visits.length; i++) {
+            if (root.children[i] != null) {
+                visits[i] += root.children[i].visits;
+            }
+        }
+    }
+
+    // grow one tree on this board until the deadline, or for the given number of playouts if not 0.
+    // Every step is made and unmade so the board is left as it was
+    private Node search(Board board, long deadline, long playouts, SplittableRandom random) {
+        Node root = new Node();
+        Node[] path = new Node[playoutDepth + 1];
+        do {
+            int startScore = board.getScore();
+            int depth = 0;
+            Node node = root;
+            path[0] = root;
+            // selection and expansion: walk down by UCT until reaching a move not tried yet
+            while (depth < playoutDepth && !board.isGameOver() && board.getPelletCount() > 0) {
+                int move = select(node);
+                step(board, DIRECTIONS[move]);
+                depth++;
+                Node child = node.children[move];
+                if (child == null) {
+                    child = new Node();
+                    node.children[move] = child;
+                    path[depth] = child;
+                    node = child;
+                    break;
+                }
+                path[depth] = child;
+                node = child;
+            }
+            int treeDepth = depth;
+            // playout: random moves that don't walk into walls
+            while (depth < playoutDepth && !board.isGameOver() && board.getPelletCount() > 0) {
+                step(board, randomMove(board, random));
+                depth++;
+            }
+            double reward = reward(board, board.getScore() - startScore);
+            for (int i = 0; i < depth; i++) {
+                board.unmakeMove();
+            }
+            for (int i = 0; i <= treeDepth; i++) {
+                path[i].visits++;
+                path[i].value += reward;
+            }
+        } while (playouts > 0 ? root.visits < playouts : System.nanoTime() < deadline);
+        return root;
+    }
+
+    private int select(Node node) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double logVisits = Math.log(Math.max(1, node.visits));
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            Node child = node.children[i];
+            if (child == null) {
+                return i; // try everything once first
+            }
+            double score = child.value / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private void step(Board board, Direction direction) {
+        if (ticks) {
+            board.makeTick(direction);
+        } else {
+            board.makeMove(direction);
+        }
+    }
+
+    private static Direction randomMove(Board board, SplittableRandom random) {
+        int x = board.getPacmanX();
+        int y = board.getPacmanY();
+        int first = random.nextInt(DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            Direction direction = DIRECTIONS[(first + i) % DIRECTIONS.length];
+            if (board.isOpen(x + direction.dx(), y + direction.dy())) {
+                return direction;
+            }
+        }
+        return DIRECTIONS[first];
+    }
+
+    // 0 for getting caught, 1 for clearing the board, otherwise more the more pellets were eaten
+    private static double reward(Board board, int eaten) {
+        if (board.isGameOver()) {
+            return 0;
+        }
+        if (board.getPelletCount() == 0) {
+            return 1;
+        }
+        return 0.5 + 0.4 * eaten / (eaten + 2.0);
+    }
+
+    // playouts run for the most recent move, across all workers
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    public double getPlayoutsPerSecond() {
+        long nanos = lastNanos;
+        return nanos == 0 ? 0 : lastPlayouts * 1e9 / nanos;
+    }
+}
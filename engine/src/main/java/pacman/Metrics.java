@@ -0,0 +1,73 @@
+package pacman;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Latency histograms around the hot paths, switched on with -Dpacman.metrics=true. They're published
+// over JMX as pacman:type=Latency,name=<name> and -Dpacman.metrics.dump=<file> also writes them out
+// when the JVM exits.
+//
+// ENABLED is a static final read once at startup, so when it is false the JIT folds every
+// "if (Metrics.ENABLED)" away and the timed code is exactly what it was without the timers.
+// Time a call like this:
+//   long start = Metrics.ENABLED ? System.nanoTime() : 0;
+//   ...
+//   if (Metrics.ENABLED) Metrics.BOARD_MOVE.record(System.nanoTime() - start);
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("pacman.metrics");
+
+    private static final List<LatencyHistogram> HISTOGRAMS = new ArrayList<>();
+
+    // null when metrics are disabled
+    public static final LatencyHistogram BOARD_MOVE = histogram("Board.move");
+    public static final LatencyHistogram GHOST_COMPUTE_MOVE = histogram("Ghost.computeMove");
+    public static final LatencyHistogram BOARD_GENERATION = histogram("Board.generate");
+    public static final LatencyHistogram PAINT = histogram("Main.paint");
+
+    static {
+        String dump = System.getProperty("pacman.metrics.dump");
+        if (ENABLED && dump != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(Path.of(dump)), "metrics-dump"));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static LatencyHistogram histogram(String name) {
+        if (!ENABLED) {
+            return null;
+        }
+        LatencyHistogram histogram = new LatencyHistogram(name);
+        HISTOGRAMS.add(histogram);
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(histogram, new ObjectName("pacman:type=Latency,name=" + name));
+        } catch (JMException e) {
+            System.err.println("could not publish " + name + " over JMX: " + e);
+        }
+        return histogram;
+    }
+
+    public static List<LatencyHistogram> getHistograms() {
+        return List.copyOf(HISTOGRAMS);
+    }
+
+    public static void dump(Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            for (LatencyHistogram histogram : HISTOGRAMS) {
+                out.println(histogram);
+            }
+        } catch (IOException e) {
+            System.err.println("could not write metrics to " + file + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pacman;
+
+import java.util.Random;
+
+// Decides pacman's next move when nobody is at the keyboard, e.g. in headless simulations.
+public interface PacmanPolicy {
+    Direction nextMove(Board board);
+
+    // picks a uniformly random direction, walls included
+    static PacmanPolicy random(long seed) {
+        Random random = new Random(seed);
+        Direction[] directions = Direction.values();
+        return board -> directions[random.nextInt(directions.length)];
+    }
+
+    // steps onto a neighbouring pellet when there is one, otherwise wanders randomly between open cells
+    static PacmanPolicy greedy(long seed) {
+        Random random = new Random(seed);
+        Direction[] directions = Direction.values();
+        return board -> {
+            int x = board.getPacmanX();
+            int y = board.getPacmanY();
+            int start = random.nextInt(directions.length);
+            Direction fallback = null;
+            for (int i = 0; i < directions.length; i++) {
+                Direction direction = directions[(start + i) % directions.length];
+                int nextX = x + direction.dx();
+                int nextY = y + direction.dy();
+                if (board.hasPellet(nextX, nextY)) {
+                    return direction;
+                }
+                if (fallback == null && board.isOpen(nextX, nextY)) {
+                    fallback = direction;
+                }
+            }
+            return fallback != null ? fallback : directions[start];
+        };
+    }
+
+    static PacmanPolicy byName(String name, long seed) {
+        return switch (name) {
+            case "random" -> random(seed);
+            case "greedy" -> greedy(seed);
+            // a fixed number of playouts so batch results don't depend on how fast the machine is, one thread per game
+            case "mcts" -> MctsPlayer.withPlayouts(1_000, 1, 40, false, seed);
+            default -> throw new IllegalArgumentException("Unknown policy: " + name);
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+
+// A recorded game: everything needed to rebuild the board plus every input, packed 2 bits per move
+// (the Direction ordinal), and the result the game ended with so playback can verify it.
+//
+// Layout, big endian:
+//   int magic "PMRP", byte version, byte mode, int size, int pacmanX, int pacmanY, long seed, int level,
+//   int idleTicks, long moveCount, int score, byte gameOver, then (moveCount + 3) / 4 bytes of moves,
+//   move i in bits (i % 4) * 2 of byte i / 4
+//
+// MOVES replays feed every move to Board.move. TICKS replays come from a GameLoop: idleTicks ticks
+// without input and then one Board.tick per move, since the loop never forgets the last direction.
+public final class Replay {
+    public static final int MAGIC = 0x504D5250; // "PMRP"
+    public static final byte VERSION = 1;
+    public static final byte MOVES = 0;
+    public static final byte TICKS = 1;
+    static final int HEADER_BYTES = 4 + 1 + 1 + 4 + 4 + 4 + 8 + 4 + 4 + 8 + 4 + 1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final byte mode;
+    private final int size;
+    private final int pacmanX;
+    private final int pacmanY;
+    private final long seed;
+    private final int level;
+    private final int idleTicks;
+    private final long moveCount;
+    private final int score;
+    private final boolean gameOver;
+    private final ByteBuffer moves; // packed moves starting at position 0, may be a view into a mapped file
+
+    Replay(byte mode, int size, int pacmanX, int pacmanY, long seed, int level, int idleTicks,
+           long moveCount, int score, boolean gameOver, ByteBuffer moves) {
+        this.mode = mode;
+        this.size = size;
+        this.pacmanX = pacmanX;
+        this.pacmanY = pacmanY;
+        this.seed = seed;
+        this.level = level;
+        this.idleTicks = idleTicks;
+        this.moveCount = moveCount;
+        this.score = score;
+        this.gameOver = gameOver;
+        this.moves = moves;
+    }
+
+    // the move count of the replay starting at position, read without moving the buffer
+    static long moveCountAt(ByteBuffer in, int position) {
+        return in.getLong(position + 4 + 1 + 1 + 4 + 4 + 4 + 8 + 4 + 4);
+    }
+
+    static int packedBytes(long moveCount) {
+        return (int) ((moveCount + 3) / 4);
+    }
+
+    // total bytes this replay takes up when written
+    public int length() {
+        return HEADER_BYTES + packedBytes(moveCount);
+    }
+
+    // reads one replay at the buffer's position and moves past it, the moves are not copied
+    public static Replay read(ByteBuffer in) {
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a replay at position " + (in.position() - 4));
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported replay version " + version);
+        }
+        byte mode = in.get();
+        int size = in.getInt();
+        int pacmanX = in.getInt();
+        int pacmanY = in.getInt();
+        long seed = in.getLong();
+        int level = in.getInt();
+        int idleTicks = in.getInt();
+        long moveCount = in.getLong();
+        int score = in.getInt();
+        boolean gameOver = in.get() != 0;
+        int bytes = packedBytes(moveCount);
+        ByteBuffer moves = in.slice(in.position(), bytes);
+        in.position(in.position() + bytes);
+        return new Replay(mode, size, pacmanX, pacmanY, seed, level, idleTicks, moveCount, score, gameOver, moves);
+    }
+
+    public void write(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put(mode);
+        out.putInt(size);
+        out.putInt(pacmanX);
+        out.putInt(pacmanY);
+        out.putLong(seed);
+        out.putInt(level);
+        out.putInt(idleTicks);
+        out.putLong(moveCount);
+        out.putInt(score);
+        out.put((byte) (gameOver ? 1 : 0));
+        out.put(moves.duplicate().position(0).limit(packedBytes(moveCount)));
+    }
+
+    public Direction getMove(long i) {
+        int packed = moves.get((int) (i >>> 2));
+        return DIRECTIONS[(packed >>> ((int) (i & 3) * 2)) & 3];
+    }
+
+    public Board newBoard() {
+        return new Board(size, new Location(pacmanX, pacmanY), seed, level);
+    }
+
+    // replays the game as fast as possible with nothing drawn and returns the board it ends on
+    public Board play() {
+        Board board = newBoard();
+        if (mode == TICKS) {
+            for (int i = 0; i < idleTicks; i++) {
+                board.tick(null);
+            }
+        }
+        for (long i = 0; i < moveCount; i++) {
+            int packed = moves.get((int) (i >>> 2));
+            Direction direction = DIRECTIONS[(packed >>> ((int) (i & 3) * 2)) & 3];
+            if (mode == TICKS) {
+                board.tick(direction);
+            } else {
+                board.move(direction);
+            }
+        }
+        return board;
+    }
+
+    // true if playing the replay back ends with the recorded score and outcome
+    public boolean verify() {
+        Board board = play();
+        return board.getScore() == score && board.isGameOver() == gameOver;
+    }
+
+    public byte getMode() {
+        return mode;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getIdleTicks() {
+        return idleTicks;
+    }
+
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    // number of Board.move or Board.tick calls playing this back takes
+    public long getTicks() {
+        return mode == TICKS ? idleTicks + moveCount : moveCount;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
@@ -0,0 +1,92 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+// A file of replays written back to back. Reading maps the file into memory a window at a time,
+// so archives far bigger than the heap (or than one 2GB mapping) are streamed without copying.
+public class ReplayArchive {
+    private static final long WINDOW = 1L << 30; // bytes mapped at once
+
+    public static void append(Path file, Replay replay) throws IOException {
+        try (FileChannel channel = openForAppend(file)) {
+            append(channel, replay);
+        }
+    }
+
+    // for writing many replays without reopening the file for each one
+    public static FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // safe to call from many threads on the same channel, each replay is written whole
+    public static void append(FileChannel channel, Replay replay) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(replay.length());
+        replay.write(buffer);
+        buffer.flip();
+        synchronized (channel) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // hands every replay in the file to the consumer in order, the replays are only valid during the call
+    public static void forEach(Path file, Consumer<Replay> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long position = 0;
+            while (position < length) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW, length - position));
+                boolean toEnd = position + window.capacity() == length;
+                // read whole replays out of this window, the one that runs off its end starts the next window
+                while (window.remaining() >= Replay.HEADER_BYTES) {
+                    long moveCount = Replay.moveCountAt(window, window.position());
+                    if (window.remaining() < Replay.HEADER_BYTES + Replay.packedBytes(moveCount)) {
+                        break;
+                    }
+                    consumer.accept(Replay.read(window));
+                }
+                if (toEnd && window.hasRemaining()) {
+                    throw new IOException("Truncated replay at " + (position + window.position()));
+                }
+                if (window.position() == 0) {
+                    throw new IOException("Replay at " + position + " is bigger than the mapping window");
+                }
+                position += window.position();
+            }
+        }
+    }
+
+    // Plays back every replay in the given archives and checks each ends with its recorded score
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: ReplayArchive <archive>...");
+            System.exit(1);
+        }
+        long[] totals = new long[3]; // replays, failed, ticks
+        long start = System.nanoTime();
+        for (String arg : args) {
+            forEach(Path.of(arg), replay -> {
+                totals[0]++;
+                totals[2] += replay.getTicks();
+                if (!replay.verify()) {
+                    totals[1]++;
+                    System.out.println("mismatch: seed " + replay.getSeed() + " level " + replay.getLevel());
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d replays, %d mismatched, %d ticks in %.2fs (%.0f ticks/s)%n",
+                totals[0], totals[1], totals[2], seconds, totals[2] / seconds);
+        if (totals[1] > 0) {
+            System.exit(2);
+        }
+    }
+}
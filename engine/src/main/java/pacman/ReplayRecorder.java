@@ -0,0 +1,49 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Collects the inputs of one game, 2 bits each, and turns them into a Replay once the game is over.
+public class ReplayRecorder {
+    private final byte mode;
+    private final int size;
+    private final Location pacman;
+    private final long seed;
+    private final int level;
+    private int idleTicks;
+    private long moveCount;
+    private byte[] moves = new byte[64];
+
+    // mode is Replay.MOVES when recording Board.move calls, Replay.TICKS when recording Board.tick calls
+    public ReplayRecorder(byte mode, int size, Location pacman, long seed, int level) {
+        this.mode = mode;
+        this.size = size;
+        this.pacman = pacman;
+        this.seed = seed;
+        this.level = level;
+    }
+
+    public void record(Direction direction) {
+        if (direction == null) {
+            // only a tick replay can start with ticks that had no input yet, the loop keeps the
+            // last direction after that so there are no gaps to record
+            if (mode != Replay.TICKS || moveCount > 0) {
+                throw new IllegalStateException("Only leading ticks of a tick replay can have no direction");
+            }
+            idleTicks++;
+            return;
+        }
+        int index = (int) (moveCount >>> 2);
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[index] |= (byte) (direction.ordinal() << ((int) (moveCount & 3) * 2));
+        moveCount++;
+    }
+
+    // the replay so far, checked against the given board's score and outcome when played back
+    public Replay finish(Board board) {
+        return new Replay(mode, size, pacman.getX(), pacman.getY(), seed, level, idleTicks, moveCount,
+                board.getScore(), board.isGameOver(), ByteBuffer.wrap(moves, 0, Replay.packedBytes(moveCount)).slice());
+    }
+}
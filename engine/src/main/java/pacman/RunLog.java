@@ -0,0 +1,168 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Every finished run, appended to a file as fixed size records and never rewritten:
+//   header: "PMRL", version
+//   record: seed (8), timestamp in epoch millis (8), ticks (8), level reached (4), score (4)
+// Appends are buffered and written at the end of the file. Reading maps the file a window at a time
+// and hands the fields over as primitives, so scanning tens of millions of runs keeps nothing on
+// the heap. A record cut short by a crash at the end of the file is ignored.
+public class RunLog implements AutoCloseable {
+    private static final int MAGIC = 0x504D524C; // "PMRL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    public static final int RECORD_BYTES = 32;
+    private static final long WINDOW = 1L << 30; // bytes mapped at once, a whole number of records
+
+    private final FileChannel channel;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(RECORD_BYTES * 2048);
+    private long written; // records in the file, not counting pending ones
+
+    public record Run(long seed, int level, int score, long ticks, long timestamp) {
+    }
+
+    // receives one record at a time while scanning, index counts records from the start of the log
+    @FunctionalInterface
+    public interface RunVisitor {
+        void visit(long index, long seed, int level, int score, long ticks, long timestamp);
+    }
+
+    private RunLog(FileChannel channel, long written) {
+        this.channel = channel;
+        this.written = written;
+    }
+
+    // opens the log for reading and appending, creating it if it doesn't exist yet
+    public static RunLog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                    // keep reading until the header is in
+                }
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                    throw new IOException(file + " is not a run log");
+                }
+                int version = header.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported run log version " + version);
+                }
+            }
+            return new RunLog(channel, (channel.size() - HEADER_BYTES) / RECORD_BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // safe to call from many threads, e.g. every game of a batch simulation
+    public synchronized void append(long seed, int level, int score, long ticks, long timestamp) throws IOException {
+        if (pending.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        pending.putLong(seed).putLong(timestamp).putLong(ticks).putInt(level).putInt(score);
+    }
+
+    public void append(Run run) throws IOException {
+        append(run.seed(), run.level(), run.score(), run.ticks(), run.timestamp());
+    }
+
+    // records written so far, pending ones included
+    public synchronized long size() {
+        return written + pending.position() / RECORD_BYTES;
+    }
+
+    public synchronized void flush() throws IOException {
+        pending.flip();
+        long position = HEADER_BYTES + written * RECORD_BYTES; // overwrites a torn record left by a crash
+        while (pending.hasRemaining()) {
+            position += channel.write(pending, position);
+        }
+        written = (position - HEADER_BYTES) / RECORD_BYTES;
+        pending.clear();
+    }
+
+    public synchronized Run get(long index) throws IOException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Run " + index + " of " + size());
+        }
+        flush();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        long position = HEADER_BYTES + index * RECORD_BYTES;
+        while (record.hasRemaining()) {
+            channel.read(record, position + record.position());
+        }
+        record.flip();
+        return readRun(record);
+    }
+
+    private static Run readRun(ByteBuffer record) {
+        long seed = record.getLong();
+        long timestamp = record.getLong();
+        long ticks = record.getLong();
+        int level = record.getInt();
+        int score = record.getInt();
+        return new Run(seed, level, score, ticks, timestamp);
+    }
+
+    // every run in the log in the order they were appended
+    public void forEach(RunVisitor visitor) throws IOException {
+        long records;
+        synchronized (this) {
+            flush();
+            records = written;
+        }
+        long index = 0;
+        while (index < records) {
+            long count = Math.min(WINDOW / RECORD_BYTES, records - index);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + index * RECORD_BYTES, count * RECORD_BYTES);
+            for (int i = 0; i < count; i++) {
+                int at = i * RECORD_BYTES;
+                visitor.visit(index + i, window.getLong(at), window.getInt(at + 24), window.getInt(at + 28),
+                        window.getLong(at + 16), window.getLong(at + 8));
+            }
+            index += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // Prints the leaderboard of a run log. Usage: RunLog <file> [k]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: RunLog <file> [k]");
+            System.exit(1);
+        }
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        try (RunLog log = open(Path.of(args[0]))) {
+            long start = System.nanoTime();
+            Leaderboard leaderboard = Leaderboard.build(log, k);
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.println(" rank      score  level        ticks                 seed");
+            int rank = 1;
+            for (Run run : leaderboard.top(k)) {
+                System.out.printf("%5d %10d %6d %12d %20d%n", rank++, run.score(), run.level(), run.ticks(), run.seed());
+            }
+            System.err.printf("%d runs indexed in %.1f ms%n", log.size(), millis);
+        }
+    }
+}
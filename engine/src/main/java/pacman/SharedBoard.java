@@ -0,0 +1,620 @@
+package pacman;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// One very large board played by many pacmen at once. The board is cut into square regions and every
+// tick runs as a fixed series of phases, each one over all regions in parallel with a join in between.
+// Within a phase a region only writes what it owns: the players and ghosts standing in it, the pellets
+// of its own cells, and the players moving into its cells while pellets are handed out. Nothing is
+// locked, and because no phase reads anything another region is writing in the same phase, the result
+// of a tick doesn't depend on how many threads run it or in what order the regions come up.
+//
+// The rules follow Board where they can: a player steps onto an open cell, eats what is there, is
+// immune for a few ticks after a power pellet, and dies if a ghost moves onto it while it isn't
+// immune. If two players step onto the same pellet in one tick the lower player id gets it. Ghosts
+// chase (or flee from, while it is immune) the nearest player they can see, since a distance map
+// per player like Board's doesn't scale to hundreds of players.
+public class SharedBoard {
+    // ghosts notice players this many steps away, regions are never smaller so a ghost only
+    // has to look at its own region and the eight around it
+    public static final int SIGHT = 8;
+    public static final int DEFAULT_REGION_SIZE = 64;
+    private static final int IMMUNITY_TICKS = 5;
+    private static final int REGIONS_PER_TASK = 16; // below this a task does its regions itself
+    private static final byte ATE_PELLET = 1;
+    private static final byte ATE_POWER = 2;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // the region itself and the four a single step can lead into
+    private static final int[] STEP_DX = {0, 1, -1, 0, 0};
+    private static final int[] STEP_DY = {0, 0, 0, 1, -1};
+
+    private final int size;
+    private final int regionSize;
+    private final int regionsAcross;
+    private final long[] walls; // never written, shared by every region
+    private final Region[] regions;
+    private final ForkJoinPool pool; // null ticks every region on the calling thread
+    // which of the regions' two player and ghost lists is current, flipped after each migration
+    private int playerList;
+    private int ghostList;
+    private long tick;
+
+    // players by id, a player is owned by the region it stands in
+    private int playerCount;
+    private int[] playerCoords = new int[16];
+    private int[] playerTargets = new int[16]; // where each player is stepping to this tick
+    private int[] scores = new int[16];
+    private int[] immunity = new int[16]; // ticks of immunity left
+    private boolean[] playerAlive = new boolean[16];
+    private byte[] ate = new byte[16];
+    private Direction[] directions = new Direction[16];
+
+    // ghosts by id, owned the same way
+    private int ghostCount;
+    private int[] ghostCoords = new int[16];
+    private boolean[] ghostAlive = new boolean[16];
+
+    // the phases of a tick, built once so ticking allocates nothing per region
+    private final IntConsumer chooseTargets = this::chooseTargets;
+    private final IntConsumer eatPellets = this::eatPellets;
+    private final IntConsumer movePlayers = this::movePlayers;
+    private final IntConsumer migratePlayers = this::migratePlayers;
+    private final IntConsumer moveGhosts = this::moveGhosts;
+    private final IntConsumer migrateGhosts = this::migrateGhosts;
+    private final IntConsumer collide = this::collide;
+
+    private static final class Region {
+        final int x0;
+        final int y0;
+        final int width;
+        final int height;
+        // this region's cells only, cell (x, y) lives at bit (y - y0) * width + (x - x0)
+        final long[] pellets;
+        final long[] powers;
+        int pelletCount;
+        // ids in increasing order, two lists each so a migration can read one while writing the other
+        final int[][] players = {new int[4], new int[4]};
+        final int[] playerCounts = new int[2];
+        final int[][] ghosts = {new int[4], new int[4]};
+        final int[] ghostCounts = new int[2];
+        int[] scratch = new int[16];
+
+        Region(int x0, int y0, int width, int height) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            int words = (width * height + 63) >>> 6;
+            this.pellets = new long[words];
+            this.powers = new long[words];
+        }
+
+        boolean contains(int coords) {
+            int x = Coords.x(coords) - x0;
+            int y = Coords.y(coords) - y0;
+            return x >= 0 && x < width && y >= 0 && y < height;
+        }
+
+        int local(int coords) {
+            return (Coords.y(coords) - y0) * width + Coords.x(coords) - x0;
+        }
+    }
+
+    // the walls, pellets and power pellets are taken from a freshly generated layout, its pacman and
+    // ghosts are left out. pool may be null to tick on the calling thread only
+    public SharedBoard(Board layout, int regionSize, ForkJoinPool pool) {
+        if (regionSize < SIGHT) {
+            throw new IllegalArgumentException("Regions must be at least " + SIGHT + " cells across");
+        }
+        this.size = layout.getSize();
+        this.regionSize = regionSize;
+        this.regionsAcross = (size + regionSize - 1) / regionSize;
+        this.walls = layout.wallBits();
+        this.pool = pool;
+        this.regions = new Region[regionsAcross * regionsAcross];
+        for (int r = 0; r < regions.length; r++) {
+            int x0 = r % regionsAcross * regionSize;
+            int y0 = r / regionsAcross * regionSize;
+            regions[r] = new Region(x0, y0, Math.min(regionSize, size - x0), Math.min(regionSize, size - y0));
+        }
+        long[] pellets = layout.pelletBits();
+        long[] powers = layout.powerBits();
+        forEachRegion(r -> {
+            Region region = regions[r];
+            for (int y = 0; y < region.height; y++) {
+                for (int x = 0; x < region.width; x++) {
+                    int cell = (region.y0 + y) * size + region.x0 + x;
+                    int local = y * region.width + x;
+                    if (test(pellets, cell)) {
+                        set(region.pellets, local);
+                        region.pelletCount++;
+                    }
+                    if (test(powers, cell)) {
+                        set(region.powers, local);
+                    }
+                }
+            }
+        });
+    }
+
+    // a new player standing on (x, y), returns its id. Only between ticks
+    public int addPlayer(int x, int y) {
+        if (!isOpen(x, y)) {
+            throw new IllegalArgumentException("Can't put a player on " + x + ", " + y);
+        }
+        if (playerCount == playerCoords.length) {
+            int capacity = playerCount * 2;
+            playerCoords = Arrays.copyOf(playerCoords, capacity);
+            playerTargets = Arrays.copyOf(playerTargets, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            immunity = Arrays.copyOf(immunity, capacity);
+            playerAlive = Arrays.copyOf(playerAlive, capacity);
+            ate = Arrays.copyOf(ate, capacity);
+            directions = Arrays.copyOf(directions, capacity);
+        }
+        int id = playerCount++;
+        int coords = Coords.pack(x, y);
+        playerCoords[id] = coords;
+        playerTargets[id] = coords;
+        playerAlive[id] = true;
+        Region region = regions[regionOf(coords)];
+        // the newest id is the largest, appending keeps the list in order
+        region.players[playerList] = append(region.players[playerList], region.playerCounts[playerList]++, id);
+        return id;
+    }
+
+    // a new ghost standing on (x, y), returns its id. Only between ticks
+    public int addGhost(int x, int y) {
+        if (!isOpen(x, y)) {
+            throw new IllegalArgumentException("Can't put a ghost on " + x + ", " + y);
+        }
+        if (ghostCount == ghostCoords.length) {
+            ghostCoords = Arrays.copyOf(ghostCoords, ghostCount * 2);
+            ghostAlive = Arrays.copyOf(ghostAlive, ghostCount * 2);
+        }
+        int id = ghostCount++;
+        int coords = Coords.pack(x, y);
+        ghostCoords[id] = coords;
+        ghostAlive[id] = true;
+        Region region = regions[regionOf(coords)];
+        region.ghosts[ghostList] = append(region.ghosts[ghostList], region.ghostCounts[ghostList]++, id);
+        return id;
+    }
+
+    // the direction a player tries to step in on every tick until changed, null stands still. Only between ticks
+    public void setDirection(int player, Direction direction) {
+        directions[player] = direction;
+    }
+
+    // every live player steps, pellets are shared out, then the ghosts move and catch or get caught
+    public void tick() {
+        forEachRegion(chooseTargets);
+        forEachRegion(eatPellets);
+        forEachRegion(movePlayers);
+        forEachRegion(migratePlayers);
+        playerList ^= 1;
+        forEachRegion(moveGhosts);
+        forEachRegion(migrateGhosts);
+        ghostList ^= 1;
+        forEachRegion(collide);
+        tick++;
+    }
+
+    // where each player in the region is stepping to, a blocked step stays put
+    private void chooseTargets(int r) {
+        Region region = regions[r];
+        int[] players = region.players[playerList];
+        for (int i = 0; i < region.playerCounts[playerList]; i++) {
+            int p = players[i];
+            int from = playerCoords[p];
+            int to = from;
+            Direction direction = directions[p];
+            if (playerAlive[p] && direction != null) {
+                int next = Coords.move(from, direction);
+                if (isOpen(next)) {
+                    to = next;
+                }
+            }
+            playerTargets[p] = to;
+            ate[p] = 0;
+        }
+    }
+
+    // the pellets of the region's cells go to the players stepping onto them, lowest id first. Those
+    // players stand in this region or the next one over, each is written to by one region only since
+    // it steps onto one cell
+    private void eatPellets(int r) {
+        Region region = regions[r];
+        int claims = 0;
+        for (int k = 0; k < STEP_DX.length; k++) {
+            int n = neighbour(r, STEP_DX[k], STEP_DY[k]);
+            if (n < 0) continue;
+            Region from = regions[n];
+            int[] players = from.players[playerList];
+            for (int i = 0; i < from.playerCounts[playerList]; i++) {
+                int p = players[i];
+                int to = playerTargets[p];
+                if (to == playerCoords[p] || !region.contains(to)) continue;
+                int local = region.local(to);
+                if (test(region.pellets, local) || test(region.powers, local)) {
+                    region.scratch = append(region.scratch, claims++, p);
+                }
+            }
+        }
+        int[] claimed = region.scratch;
+        Arrays.sort(claimed, 0, claims);
+        for (int i = 0; i < claims; i++) {
+            int p = claimed[i];
+            int local = region.local(playerTargets[p]);
+            byte eaten = 0;
+            if (test(region.pellets, local)) {
+                clear(region.pellets, local);
+                region.pelletCount--;
+                eaten |= ATE_PELLET;
+            }
+            if (test(region.powers, local)) {
+                clear(region.powers, local);
+                eaten |= ATE_POWER;
+            }
+            ate[p] = eaten;
+        }
+    }
+
+    private void movePlayers(int r) {
+        Region region = regions[r];
+        int[] players = region.players[playerList];
+        for (int i = 0; i < region.playerCounts[playerList]; i++) {
+            int p = players[i];
+            if (!playerAlive[p]) continue;
+            if (immunity[p] > 0) {
+                immunity[p]--;
+            }
+            if ((ate[p] & ATE_POWER) != 0) {
+                immunity[p] = IMMUNITY_TICKS;
+            }
+            if ((ate[p] & ATE_PELLET) != 0) {
+                scores[p]++;
+            }
+            playerCoords[p] = playerTargets[p];
+        }
+    }
+
+    // the region's next list is everything now standing in it, pulled from itself and its neighbours.
+    // Dead players are dropped here
+    private void migratePlayers(int r) {
+        Region region = regions[r];
+        int next = playerList ^ 1;
+        int count = 0;
+        for (int k = 0; k < STEP_DX.length; k++) {
+            int n = neighbour(r, STEP_DX[k], STEP_DY[k]);
+            if (n < 0) continue;
+            Region from = regions[n];
+            int[] players = from.players[playerList];
+            for (int i = 0; i < from.playerCounts[playerList]; i++) {
+                int p = players[i];
+                if (playerAlive[p] && region.contains(playerCoords[p])) {
+                    region.players[next] = append(region.players[next], count++, p);
+                }
+            }
+        }
+        Arrays.sort(region.players[next], 0, count);
+        region.playerCounts[next] = count;
+    }
+
+    // every live ghost takes one step after the nearest player in sight, lowest id on a tie
+    private void moveGhosts(int r) {
+        Region region = regions[r];
+        int[] ghosts = region.ghosts[ghostList];
+        for (int i = 0; i < region.ghostCounts[ghostList]; i++) {
+            int g = ghosts[i];
+            if (!ghostAlive[g]) continue;
+            int coords = ghostCoords[g];
+            int target = -1;
+            int nearest = SIGHT + 1;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int n = neighbour(r, dx, dy);
+                    if (n < 0) continue;
+                    Region around = regions[n];
+                    int[] players = around.players[playerList];
+                    for (int j = 0; j < around.playerCounts[playerList]; j++) {
+                        int p = players[j];
+                        int distance = Coords.manhattan(coords, playerCoords[p]);
+                        if (distance < nearest || distance == nearest && p < target) {
+                            nearest = distance;
+                            target = p;
+                        }
+                    }
+                }
+            }
+            if (target < 0) continue; // nobody in sight, stay put
+            int goal = playerCoords[target];
+            boolean flee = immunity[target] > 0;
+            int best = nearest;
+            int bestMove = coords;
+            for (Direction direction : DIRECTIONS) {
+                int next = Coords.move(coords, direction);
+                if (!isOpen(next)) continue;
+                int distance = Coords.manhattan(next, goal);
+                if (flee ? distance > best : distance < best) {
+                    best = distance;
+                    bestMove = next;
+                }
+            }
+            ghostCoords[g] = bestMove;
+        }
+    }
+
+    private void migrateGhosts(int r) {
+        Region region = regions[r];
+        int next = ghostList ^ 1;
+        int count = 0;
+        for (int k = 0; k < STEP_DX.length; k++) {
+            int n = neighbour(r, STEP_DX[k], STEP_DY[k]);
+            if (n < 0) continue;
+            Region from = regions[n];
+            int[] ghosts = from.ghosts[ghostList];
+            for (int i = 0; i < from.ghostCounts[ghostList]; i++) {
+                int g = ghosts[i];
+                if (ghostAlive[g] && region.contains(ghostCoords[g])) {
+                    region.ghosts[next] = append(region.ghosts[next], count++, g);
+                }
+            }
+        }
+        Arrays.sort(region.ghosts[next], 0, count);
+        region.ghostCounts[next] = count;
+    }
+
+    // a ghost on the same cell as an immune player dies, otherwise every player on that cell does.
+    // Both sides now stand in this region, so it owns every write
+    private void collide(int r) {
+        Region region = regions[r];
+        int[] ghosts = region.ghosts[ghostList];
+        int[] players = region.players[playerList];
+        int playersHere = region.playerCounts[playerList];
+        for (int i = 0; i < region.ghostCounts[ghostList]; i++) {
+            int g = ghosts[i];
+            int coords = ghostCoords[g];
+            boolean eaten = false;
+            for (int j = 0; j < playersHere; j++) {
+                int p = players[j];
+                if (playerAlive[p] && playerCoords[p] == coords && immunity[p] > 0) {
+                    eaten = true;
+                    break;
+                }
+            }
+            if (eaten) {
+                ghostAlive[g] = false;
+                continue;
+            }
+            for (int j = 0; j < playersHere; j++) {
+                int p = players[j];
+                if (playerCoords[p] == coords) {
+                    playerAlive[p] = false;
+                }
+            }
+        }
+    }
+
+    private void forEachRegion(IntConsumer work) {
+        if (pool == null || regions.length <= REGIONS_PER_TASK) {
+            for (int r = 0; r < regions.length; r++) {
+                work.accept(r);
+            }
+        } else {
+            pool.invoke(new RegionRange(work, 0, regions.length));
+        }
+    }
+
+    private class RegionRange extends RecursiveAction {
+        private final IntConsumer work;
+        private final int from;
+        private final int to;
+
+        RegionRange(IntConsumer work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= REGIONS_PER_TASK) {
+                for (int r = from; r < to; r++) {
+                    work.accept(r);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RegionRange(work, from, middle), new RegionRange(work, middle, to));
+        }
+    }
+
+    private int regionOf(int coords) {
+        return Coords.y(coords) / regionSize * regionsAcross + Coords.x(coords) / regionSize;
+    }
+
+    // the region dx, dy regions away, or -1 past the edge of the board
+    private int neighbour(int region, int dx, int dy) {
+        int x = region % regionsAcross + dx;
+        int y = region / regionsAcross + dy;
+        if (x < 0 || x >= regionsAcross || y < 0 || y >= regionsAcross) {
+            return -1;
+        }
+        return y * regionsAcross + x;
+    }
+
+    private boolean isOpen(int coords) {
+        return Coords.withinBounds(coords, size) && !test(walls, Coords.cell(coords, size));
+    }
+
+    public boolean isOpen(int x, int y) {
+        return isOpen(Coords.pack(x, y));
+    }
+
+    // true if the cell holds a pellet or a power pellet
+    public boolean hasPellet(int x, int y) {
+        int coords = Coords.pack(x, y);
+        if (!Coords.withinBounds(coords, size)) {
+            return false;
+        }
+        Region region = regions[regionOf(coords)];
+        int local = region.local(coords);
+        return test(region.pellets, local) || test(region.powers, local);
+    }
+
+    // pellets left on the whole board, power pellets not included
+    public long getPelletCount() {
+        long count = 0;
+        for (Region region : regions) {
+            count += region.pelletCount;
+        }
+        return count;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getPlayerX(int player) {
+        return Coords.x(playerCoords[player]);
+    }
+
+    public int getPlayerY(int player) {
+        return Coords.y(playerCoords[player]);
+    }
+
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    public boolean isAlive(int player) {
+        return playerAlive[player];
+    }
+
+    public boolean isImmune(int player) {
+        return immunity[player] > 0;
+    }
+
+    public int getGhostCount() {
+        return ghostCount;
+    }
+
+    public int getGhostX(int ghost) {
+        return Coords.x(ghostCoords[ghost]);
+    }
+
+    public int getGhostY(int ghost) {
+        return Coords.y(ghostCoords[ghost]);
+    }
+
+    public boolean isGhostAlive(int ghost) {
+        return ghostAlive[ghost];
+    }
+
+    private static int[] append(int[] list, int at, int value) {
+        if (at == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[at] = value;
+        return list;
+    }
+
+    private static boolean test(long[] set, int cell) {
+        return (set[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] set, int cell) {
+        set[cell >>> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] set, int cell) {
+        set[cell >>> 6] &= ~(1L << cell);
+    }
+
+    // Plays a shared board with wandering players and prints the tick rate and a checksum of the final
+    // state, which comes out the same for any thread count.
+    // Usage: SharedBoard <size> <players> <ghosts> <ticks> [threads] [regionSize] [seed]
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("usage: SharedBoard <size> <players> <ghosts> <ticks> [threads] [regionSize] [seed]");
+            System.exit(1);
+        }
+        int size = Integer.parseInt(args[0]);
+        int players = Integer.parseInt(args[1]);
+        int ghosts = Integer.parseInt(args[2]);
+        int ticks = Integer.parseInt(args[3]);
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        int regionSize = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_REGION_SIZE;
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : 42L;
+
+        Board layout = new Board(size, new Location(0, 0), seed, 1);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        SharedBoard board = new SharedBoard(layout, regionSize, pool);
+        Random random = new Random(seed);
+        for (int i = 0; i < players; i++) {
+            Location cell = layout.randomFreeCell(random);
+            board.addPlayer(cell.getX(), cell.getY());
+        }
+        for (int i = 0; i < ghosts; i++) {
+            Location cell = layout.randomFreeCell(random);
+            board.addGhost(cell.getX(), cell.getY());
+        }
+        layout = null; // the shared board keeps the walls, the rest can go
+
+        // players walk straight on and turn somewhere random when they hit a wall
+        Direction[] heading = new Direction[players];
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            for (int p = 0; p < players; p++) {
+                if (!board.isAlive(p)) continue;
+                Direction direction = heading[p];
+                if (direction == null || !board.isOpen(board.getPlayerX(p) + direction.dx(), board.getPlayerY(p) + direction.dy())) {
+                    direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                    heading[p] = direction;
+                    board.setDirection(p, direction);
+                }
+            }
+            board.tick();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        long checksum = board.getPelletCount();
+        int alive = 0;
+        long score = 0;
+        for (int p = 0; p < players; p++) {
+            alive += board.isAlive(p) ? 1 : 0;
+            score += board.getScore(p);
+            checksum = checksum * 31 + Coords.pack(board.getPlayerX(p), board.getPlayerY(p)) * 7L + board.getScore(p);
+        }
+        int ghostsAlive = 0;
+        for (int g = 0; g < ghosts; g++) {
+            ghostsAlive += board.isGhostAlive(g) ? 1 : 0;
+            checksum = checksum * 31 + Coords.pack(board.getGhostX(g), board.getGhostY(g)) + (board.isGhostAlive(g) ? 1 : 0);
+        }
+        System.out.printf("%d players alive, %d ghosts alive, total score %d, %d pellets left, checksum %016x%n",
+                alive, ghostsAlive, score, board.getPelletCount(), checksum);
+        System.err.printf("%d ticks of %d players on %dx%d (%d regions) in %.2fs on %d threads (%.0f ticks/s, %.0f player moves/s)%n",
+                ticks, players, size, size, board.getRegionCount(), seconds, threads, ticks / seconds,
+                (double) ticks * players / seconds);
+    }
+}
@@ -0,0 +1,120 @@
+package pacman;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Plays the game in a terminal with no AWT at all, e.g. over ssh.
+// Arrow keys or wasd to move, q to quit. Usage: TerminalGame [boardSize] [columns] [rows]
+// -Dpacman.replays=file appends a replay of every level played to an end to an archive ReplayArchive can check
+public class TerminalGame {
+    private static final int TICKS_PER_SECOND = 5;
+
+    private static volatile GameLoop loop;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        TerminalRenderer renderer = new TerminalRenderer(
+                Channels.newChannel(new FileOutputStream(FileDescriptor.out)), columns, rows);
+        // a snapshot lands here when a level ends, null when the player quits
+        LinkedBlockingQueue<Object> ended = new LinkedBlockingQueue<>();
+        String replayFile = System.getProperty("pacman.replays");
+        FileChannel replays = replayFile == null ? null : ReplayArchive.openForAppend(Path.of(replayFile));
+
+        stty("raw", "-echo");
+        try {
+            Thread input = new Thread(() -> readInput(ended), "terminal-input");
+            input.setDaemon(true);
+            input.start();
+
+            int level = 1;
+            int totalScore = 0;
+            while (true) {
+                long seed = System.currentTimeMillis();
+                Board board = new Board(size, new Location(0, 0), seed, level);
+                // stop() doesn't wait for the loop thread, a tick it finishes after the level ended
+                // must not be drawn over the next level
+                AtomicBoolean levelOver = new AtomicBoolean();
+                renderer.reset();
+                loop = new GameLoop(board, TICKS_PER_SECOND, snapshot -> {
+                    if (levelOver.get()) {
+                        return;
+                    }
+                    renderer.render(snapshot);
+                    if (snapshot.isGameOver() || snapshot.getPelletCount() == 0) {
+                        levelOver.set(true);
+                        ended.offer(snapshot);
+                    }
+                });
+                if (replays != null) {
+                    loop.setRecorder(new ReplayRecorder(Replay.TICKS, size, new Location(0, 0), seed, level), replays);
+                }
+                loop.start();
+                Object end = ended.take();
+                loop.stop();
+                if (!(end instanceof BoardSnapshot snapshot)) {
+                    break; // quit
+                }
+                totalScore += snapshot.getScore();
+                if (snapshot.isGameOver()) {
+                    System.out.print("\r\nGAME OVER, score " + totalScore + "\r\n");
+                    break;
+                }
+                level++;
+            }
+        } finally {
+            stty("sane");
+            if (replays != null) {
+                replays.close();
+            }
+        }
+    }
+
+    private static void readInput(LinkedBlockingQueue<Object> ended) {
+        try {
+            int c;
+            while ((c = System.in.read()) != -1) {
+                if (c == 27 && System.in.read() == '[') {
+                    c = System.in.read(); // arrow keys come in as ESC [ A..D
+                }
+                Direction direction = switch (c) {
+                    case 'w', 'A' -> Direction.UP;
+                    case 's', 'B' -> Direction.DOWN;
+                    case 'a', 'D' -> Direction.LEFT;
+                    case 'd', 'C' -> Direction.RIGHT;
+                    default -> null;
+                };
+                if (c == 'q' || c == 3) { // q or ctrl-c, raw mode swallows the signal
+                    break;
+                }
+                GameLoop current = loop;
+                if (direction != null && current != null) {
+                    current.submit(direction);
+                }
+            }
+        } catch (IOException e) {
+            // treat a broken input stream as quitting
+        }
+        ended.offer(Boolean.FALSE);
+    }
+
+    // switch the controlling terminal's mode, key presses arrive one at a time without echo in raw mode
+    private static void stty(String... settings) throws IOException, InterruptedException {
+        String[] command = new String[settings.length + 1];
+        command[0] = "stty";
+        System.arraycopy(settings, 0, command, 1, settings.length);
+        File tty = new File("/dev/tty");
+        if (System.console() == null || !tty.exists()) {
+            return; // input or output is redirected, play on with whatever comes in
+        }
+        new ProcessBuilder(command).redirectInput(ProcessBuilder.Redirect.from(tty)).start().waitFor();
+    }
+}
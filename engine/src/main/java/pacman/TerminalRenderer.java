@@ -0,0 +1,182 @@
+package pacman;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// Draws snapshots on an ANSI terminal, e.g. over ssh. The first frame and every scroll redraw the
+// whole view, after that only the cells pacman and the ghosts left or entered are looked at, and only
+// the ones that really changed are written, so output per tick follows the number of changes rather
+// than the board size. Uses the same characters as Board.drawBoard, with P and G for pacman and ghosts.
+public class TerminalRenderer {
+    private static final byte ESC = 27;
+
+    private final WritableByteChannel out;
+    private final int columns;
+    private final int rows;
+    private final Camera camera = new Camera(2);
+    private final char[] screen; // what the terminal currently shows for each cell of the view
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private BoardSnapshot previous;
+    private int cursorX = -1; // where the terminal cursor is after the last write, in view cells
+    private int cursorY = -1;
+    private int shownScore = -1;
+
+    public TerminalRenderer(WritableByteChannel out, int columns, int rows) {
+        this.out = out;
+        this.columns = columns;
+        this.rows = rows;
+        this.screen = new char[columns * rows];
+    }
+
+    // the next frame is drawn from scratch, call before showing a different board, e.g. a new level
+    public void reset() {
+        previous = null;
+        camera.reset();
+    }
+
+    public void render(BoardSnapshot snapshot) {
+        boolean scrolled = camera.follow(snapshot.getPacmanX(), snapshot.getPacmanY(), columns, rows, snapshot.getSize());
+        if (previous == null || scrolled || previous.getSize() != snapshot.getSize()) {
+            redraw(snapshot);
+        } else {
+            update(previous.getPacmanX(), previous.getPacmanY(), snapshot);
+            update(snapshot.getPacmanX(), snapshot.getPacmanY(), snapshot);
+            for (int i = 0; i < snapshot.getGhostCount(); i++) {
+                if (i < previous.getGhostCount() && previous.isGhostAlive(i)) {
+                    update(previous.getGhostX(i), previous.getGhostY(i), snapshot);
+                }
+                if (snapshot.isGhostAlive(i)) {
+                    update(snapshot.getGhostX(i), snapshot.getGhostY(i), snapshot);
+                }
+            }
+        }
+        if (snapshot.getScore() != shownScore) {
+            shownScore = snapshot.getScore();
+            moveCursor(0, rows);
+            put("Score: " + shownScore + "    ");
+            cursorX = -1; // the status line isn't tracked, force a cursor move next time
+        }
+        previous = snapshot;
+        flush();
+    }
+
+    private void redraw(BoardSnapshot snapshot) {
+        put(ESC);
+        put("[2J");
+        int cameraX = camera.getX();
+        int cameraY = camera.getY();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                screen[y * columns + x] = background(snapshot, cameraX + x, cameraY + y);
+            }
+        }
+        // ghosts are drawn over pacman, like drawBoard does
+        overlay(snapshot.getPacmanX() - cameraX, snapshot.getPacmanY() - cameraY, 'P');
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            if (snapshot.isGhostAlive(i)) {
+                overlay(snapshot.getGhostX(i) - cameraX, snapshot.getGhostY(i) - cameraY, 'G');
+            }
+        }
+        for (int y = 0; y < rows; y++) {
+            moveCursor(0, y);
+            for (int x = 0; x < columns; x++) {
+                put((byte) screen[y * columns + x]);
+            }
+            cursorX = columns;
+        }
+        shownScore = -1;
+    }
+
+    private void overlay(int x, int y, char c) {
+        if (x >= 0 && x < columns && y >= 0 && y < rows) {
+            screen[y * columns + x] = c;
+        }
+    }
+
+    // redraw one board cell if it is in view and differs from what the terminal shows
+    private void update(int boardX, int boardY, BoardSnapshot snapshot) {
+        int x = boardX - camera.getX();
+        int y = boardY - camera.getY();
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return;
+        }
+        char c = cellAt(snapshot, boardX, boardY);
+        if (screen[y * columns + x] == c) {
+            return;
+        }
+        screen[y * columns + x] = c;
+        if (cursorX != x || cursorY != y) {
+            moveCursor(x, y);
+        }
+        put((byte) c);
+        cursorX = x + 1;
+    }
+
+    private static char cellAt(BoardSnapshot snapshot, int x, int y) {
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            if (snapshot.isGhostAlive(i) && snapshot.getGhostX(i) == x && snapshot.getGhostY(i) == y) {
+                return 'G';
+            }
+        }
+        if (snapshot.getPacmanX() == x && snapshot.getPacmanY() == y) {
+            return 'P';
+        }
+        return background(snapshot, x, y);
+    }
+
+    private static char background(BoardSnapshot snapshot, int x, int y) {
+        if (x >= snapshot.getSize() || y >= snapshot.getSize()) return ' ';
+        return snapshot.charAt(x, y);
+    }
+
+    private void moveCursor(int x, int y) {
+        // ANSI positions are 1 based, row first
+        put(ESC);
+        put('[');
+        putNumber(y + 1);
+        put(';');
+        putNumber(x + 1);
+        put('H');
+        cursorX = x;
+        cursorY = y;
+    }
+
+    private void putNumber(int n) {
+        if (n >= 10) {
+            putNumber(n / 10);
+        }
+        put((byte) ('0' + n % 10));
+    }
+
+    private void put(String s) {
+        for (byte b : s.getBytes(StandardCharsets.US_ASCII)) {
+            put(b);
+        }
+    }
+
+    private void put(char c) {
+        put((byte) c);
+    }
+
+    private void put(byte b) {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package pacman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class BoardTest {
+    // walls pile up with the level, a new board must still start with pellets pacman can get to
+    @Test
+    void everyLevelStartsWithReachablePellets() {
+        for (int level = 1; level <= 15; level++) {
+            for (long seed = 0; seed < 500; seed++) {
+                Board board = new Board(10, new Location(0, 0), seed, level);
+                assertTrue(board.getPelletCount() > 0, "no pellets for seed " + seed + " level " + level);
+                for (Location pellet : board.getPellets()) {
+                    assertNotEquals(Board.UNREACHABLE, board.distanceToPacman(pellet.getX(), pellet.getY()),
+                            "unreachable pellet for seed " + seed + " level " + level);
+                }
+            }
+        }
+    }
+
+    // a killed ghost comes back dead and where it died, not on pacman's cell
+    @Test
+    void saveAndLoadKeepKilledGhosts() {
+        Board board = new Board(10, new Location(0, 0), 7L, 3);
+        Ghost killed = board.getGhost(0);
+        killed.kill();
+
+        ByteBuffer state = ByteBuffer.allocate(board.savedSize());
+        board.save(state);
+        assertEquals(0, state.remaining());
+        Board loaded = Board.load(state.flip());
+
+        assertEquals(board.getGhostCount(), loaded.getGhostCount());
+        for (int g = 0; g < board.getGhostCount(); g++) {
+            assertEquals(board.getGhost(g).getCoords(), loaded.getGhost(g).getCoords(), "ghost " + g);
+            assertEquals(board.getGhost(g).isAlive(), loaded.getGhost(g).isAlive(), "ghost " + g);
+        }
+        assertFalse(loaded.getGhost(0).isAlive());
+        assertEquals(board.ghostsAt(killed.getX(), killed.getY()), loaded.ghostsAt(killed.getX(), killed.getY()));
+        assertEquals(board.drawBoard(), loaded.drawBoard());
+    }
+}
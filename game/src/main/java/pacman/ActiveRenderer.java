@@ -0,0 +1,238 @@
+package pacman;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+// Draws the game on its own thread at a fixed frame rate into a Canvas with a BufferStrategy, instead
+// of waiting for Swing to call paintComponent. Pacman, the ghosts and the camera glide from where they
+// were on the previous tick to where they are now, so movement looks smooth at any tick rate, and
+// because frames are paced here and not by repaint() requests, how often keys are pressed makes no
+// difference to how much drawing is done. A small overlay shows the frame rate and frame times.
+public class ActiveRenderer extends Canvas {
+    private static final int CAMERA_MARGIN = 2;
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private final SpriteCache sprites;
+    private final int blockSize;
+    private final long frameNanos;
+    private final long tickNanos;
+    private volatile Frame frame; // the two latest ticks, swapped in whole by the loop thread
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // render thread only
+    private final Camera camera = new Camera(CAMERA_MARGIN);
+    private Frame shown;
+    private int previousCameraX;
+    private int previousCameraY;
+    private long windowStart;
+    private int windowFrames;
+    private long windowFrameNanos;
+    private long windowMaxNanos;
+    private String overlay = "";
+
+    // the snapshots either side of the moment being drawn, and when the newer one arrived
+    private record Frame(BoardSnapshot previous, BoardSnapshot current, long arrived) {
+    }
+
+    public ActiveRenderer(SpriteCache sprites, int blockSize, int targetFps, long tickNanos) {
+        if (targetFps <= 0) {
+            throw new IllegalArgumentException("targetFps must be positive");
+        }
+        this.sprites = sprites;
+        this.blockSize = blockSize;
+        this.frameNanos = 1_000_000_000L / targetFps;
+        this.tickNanos = tickNanos;
+        setIgnoreRepaint(true); // every pixel comes from the render thread
+        setFocusable(false); // keys keep going to the frame
+        setBackground(Color.BLACK);
+    }
+
+    // a new board, shown without sliding in from wherever the last one ended
+    public void reset(BoardSnapshot first) {
+        frame = new Frame(first, first, System.nanoTime());
+    }
+
+    // called on the game loop thread after every tick
+    public void show(BoardSnapshot snapshot) {
+        Frame last = frame;
+        frame = new Frame(last == null ? snapshot : last.current(), snapshot, System.nanoTime());
+    }
+
+    // the canvas has to be on screen before it can get a buffer strategy
+    public void start() {
+        if (running) {
+            return;
+        }
+        createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this::run, "active-renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    private void run() {
+        BufferStrategy strategy = getBufferStrategy();
+        long next = System.nanoTime();
+        windowStart = next;
+        // a quick stop() and start() can overlap the old thread's last frame, it bows out here
+        while (running && thread == Thread.currentThread()) {
+            long start = System.nanoTime();
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    try {
+                        render(g, start);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            long end = System.nanoTime();
+            if (Metrics.ENABLED) Metrics.PAINT.record(end - start);
+            countFrame(end, end - start);
+
+            next += frameNanos;
+            if (end > next) {
+                next = end; // missed the slot, don't try to catch up with a burst of frames
+                continue;
+            }
+            long wait;
+            while (running && (wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    private void render(Graphics g, long now) {
+        int width = getWidth();
+        int height = getHeight();
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+        Frame current = frame;
+        if (current == null) {
+            return;
+        }
+        BoardSnapshot snapshot = current.current();
+        BoardSnapshot previous = current.previous();
+        if (current != shown) {
+            // a new tick came in, the camera slides from where it was to where it follows pacman now
+            if (shown == null || previous == snapshot) {
+                camera.reset();
+            }
+            previousCameraX = camera.getX();
+            previousCameraY = camera.getY();
+            camera.follow(snapshot.getPacmanX(), snapshot.getPacmanY(), Math.max(1, width / blockSize),
+                    Math.max(1, height / blockSize), snapshot.getSize());
+            if (shown == null || previous == snapshot) {
+                previousCameraX = camera.getX();
+                previousCameraY = camera.getY();
+            }
+            shown = current;
+        }
+        // how far between the previous tick and the current one this frame is, 0 to 1
+        double t = Math.min(1.0, (now - current.arrived()) / (double) tickNanos);
+        double cameraX = lerp(previousCameraX, camera.getX(), t);
+        double cameraY = lerp(previousCameraY, camera.getY(), t);
+        int firstX = (int) Math.floor(cameraX);
+        int firstY = (int) Math.floor(cameraY);
+        int offsetX = (int) Math.round((cameraX - firstX) * blockSize);
+        int offsetY = (int) Math.round((cameraY - firstY) * blockSize);
+        int columns = width / blockSize + 2;
+        int rows = height / blockSize + 2;
+
+        // grid, walls and pellets of the cells in view
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                int cellX = firstX + x;
+                int cellY = firstY + y;
+                if (cellX >= snapshot.getSize() || cellY >= snapshot.getSize()) continue;
+                int px = x * blockSize - offsetX;
+                int py = y * blockSize - offsetY;
+                if (snapshot.isWall(cellX, cellY)) {
+                    g.setColor(Color.BLUE);
+                    g.fillRect(px, py, blockSize, blockSize);
+                } else if (snapshot.hasPellet(cellX, cellY)) {
+                    g.setColor(Color.WHITE);
+                    int pelletSize = 10;
+                    g.fillOval(px + (blockSize - pelletSize) / 2, py + (blockSize - pelletSize) / 2, pelletSize, pelletSize);
+                } else if (snapshot.hasPowerup(cellX, cellY)) {
+                    g.setColor(Color.YELLOW);
+                    int pelletSize = 15;
+                    g.fillOval(px + (blockSize - pelletSize) / 2, py + (blockSize - pelletSize) / 2, pelletSize, pelletSize);
+                }
+                g.setColor(Color.LIGHT_GRAY);
+                g.drawRect(px, py, blockSize, blockSize);
+            }
+        }
+
+        // pacman
+        g.setColor(snapshot.isImmune() ? Color.GREEN : Color.YELLOW);
+        int pacmanSize = 30;
+        int pacmanX = screen(lerp(previous.getPacmanX(), snapshot.getPacmanX(), t), cameraX) + (blockSize - pacmanSize) / 2;
+        int pacmanY = screen(lerp(previous.getPacmanY(), snapshot.getPacmanY(), t), cameraY) + (blockSize - pacmanSize) / 2;
+        g.fillArc(pacmanX, pacmanY, pacmanSize, pacmanSize, 45, 270);
+
+        // ghosts, a ghost that was just killed simply disappears
+        g.setColor(Color.RED);
+        Image ghostImage = sprites.get("ghost");
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            if (!snapshot.isGhostAlive(i)) continue;
+            boolean moved = i < previous.getGhostCount() && previous.isGhostAlive(i);
+            double gx = moved ? lerp(previous.getGhostX(i), snapshot.getGhostX(i), t) : snapshot.getGhostX(i);
+            double gy = moved ? lerp(previous.getGhostY(i), snapshot.getGhostY(i), t) : snapshot.getGhostY(i);
+            int ghostX = screen(gx, cameraX);
+            int ghostY = screen(gy, cameraY);
+            if (ghostX < -blockSize || ghostY < -blockSize || ghostX > width || ghostY > height) continue;
+            if (ghostImage != null) {
+                g.drawImage(ghostImage, ghostX, ghostY, null);
+            } else {
+                g.fillOval(ghostX, ghostY, blockSize, blockSize);
+            }
+        }
+
+        g.setFont(OVERLAY_FONT);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, g.getFontMetrics().stringWidth(overlay) + 8, 18);
+        g.setColor(Color.GREEN);
+        g.drawString(overlay, 4, 13);
+    }
+
+    private int screen(double cell, double camera) {
+        return (int) Math.round((cell - camera) * blockSize);
+    }
+
+    private static double lerp(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+
+    // frame rate and frame times over the last second, for the overlay
+    private void countFrame(long now, long duration) {
+        windowFrames++;
+        windowFrameNanos += duration;
+        windowMaxNanos = Math.max(windowMaxNanos, duration);
+        long elapsed = now - windowStart;
+        if (elapsed >= 1_000_000_000L) {
+            overlay = String.format("%.0f fps  frame %.2f ms avg %.2f ms max", windowFrames * 1e9 / elapsed,
+                    windowFrameNanos / 1e6 / windowFrames, windowMaxNanos / 1e6);
+            windowStart = now;
+            windowFrames = 0;
+            windowFrameNanos = 0;
+            windowMaxNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,635 @@
+package pacman;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.*;
+
+
+// Mock PacMan class for demonstration
+
+
+public class Main extends JFrame {
+    public static final int BLOCK_SIZE = 50;
+    private static final int TICKS_PER_SECOND = 5;
+    // boards bigger than the window scroll, e.g. -Dpacman.boardSize=1000
+    private static final int BOARD_SIZE = Integer.getInteger("pacman.boardSize", 10);
+    private static final int CAMERA_MARGIN = 2; // cells kept between pacman and the edge of the view
+    // -Dpacman.render=active draws from a render thread at -Dpacman.fps frames a second with smooth
+    // movement, instead of Swing repainting the cells that changed once per tick
+    private static final boolean ACTIVE_RENDERING = "active".equals(System.getProperty("pacman.render"));
+    private static final int TARGET_FPS = Integer.getInteger("pacman.fps", 60);
+    private final Camera camera = new Camera(CAMERA_MARGIN); // only touched on the EDT
+    private GameLoop gameLoop;
+    private BoardSnapshot shownSnapshot; // the tick currently on screen, only touched on the EDT
+    // the in-game panels are built once and reused for every level
+    private final JPanel gamePanel;
+    private final JPanel scorePanel;
+    private final JPanel controlPanel;
+    private final ActiveRenderer renderer; // null unless ACTIVE_RENDERING, then it sits in gamePanel
+    private JLabel scoreLabel;
+    // written on the EDT, read by the game loop thread to drop ticks of a board that was replaced
+    private volatile Board board;
+    // the next level's board is generated here while the current one is played, nothing else runs on it
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "level-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<Board> nextBoard;
+    private int nextBoardLevel;
+    private long nextBoardSeed;
+    // the board a cleared level is waiting on, null while a level is being played
+    private CompletableFuture<Board> pendingLevel;
+    private static final String GHOST_URL = "https://www.pngall.com/wp-content/uploads/15/Pacman-Ghost-PNG-Images.png";
+    // shared by every level, the ghost sprite is fetched once in the background and red ovals are drawn until then
+    private final SpriteCache sprites = new SpriteCache(Path.of(System.getProperty("user.home"), ".pacman", "sprites"));
+    private JPanel currentPanel;
+    private int totalScore = 0;
+    // every finished game is kept in the run log, the high scores are indexed from it at start up
+    private static final int HIGH_SCORES = 5;
+    private final RunLog runLog = openRunLog(Path.of(System.getProperty("user.home"), ".pacman", "runs.log"));
+    private final CompletableFuture<Leaderboard> leaderboard;
+    // the run log is read and written here, one run at a time and never on the EDT
+    private final ExecutorService runLogWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "run-log");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long runSeed; // seed of the first level of the game being played
+    private long runTicks; // ticks of the levels already cleared
+    // -Dpacman.replays=file appends a replay of every level played to an end, see ReplayArchive
+    private final FileChannel replays = openReplays(System.getProperty("pacman.replays"));
+    private boolean demo; // pacman is steered by the MCTS player instead of the keyboard
+    private MctsPlayer autopilot;
+
+
+    public Main() {
+        setTitle("Pac-Man Game");
+        setSize(600, 600);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+        if (ACTIVE_RENDERING) {
+            renderer = new ActiveRenderer(sprites, BLOCK_SIZE, TARGET_FPS, 1_000_000_000L / TICKS_PER_SECOND);
+            gamePanel = new JPanel(new BorderLayout());
+            gamePanel.add(renderer, BorderLayout.CENTER);
+            gamePanel.setPreferredSize(new Dimension(500, 500));
+        } else {
+            renderer = null;
+            gamePanel = createGamePanel();
+        }
+        scorePanel = createScorePanel();
+        controlPanel = createControlPanel();
+        addKeyListener(new KeyListener() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+
+                Direction direction = switch (e.getKeyCode()) {
+                    case KeyEvent.VK_UP -> Direction.UP;
+                    case KeyEvent.VK_DOWN -> Direction.DOWN;
+                    case KeyEvent.VK_LEFT -> Direction.LEFT;
+                    case KeyEvent.VK_RIGHT -> Direction.RIGHT;
+                    default -> null;
+                };
+                if (direction == null || gameLoop == null) {
+                    return;
+                }
+                gameLoop.submit(direction);
+            }
+            @Override
+            public void keyReleased(KeyEvent e) {}
+            @Override
+            public void keyTyped(KeyEvent e) {}
+        });
+
+        leaderboard = runLog == null ? null : CompletableFuture.supplyAsync(() -> {
+            try {
+                return Leaderboard.build(runLog, HIGH_SCORES);
+            } catch (IOException e) {
+                System.err.println("Couldn't read the run log: " + e);
+                return null;
+            }
+        }, runLogWriter);
+        loadSprites();
+        showMainMenu();
+        setVisible(true);
+    }
+
+    private void loadSprites() {
+        URL ghostUrl;
+        try {
+            ghostUrl = URI.create(GHOST_URL).toURL();
+        } catch (MalformedURLException e) {
+            ghostUrl = null;
+        }
+        sprites.load("ghost", ghostUrl, BLOCK_SIZE, BLOCK_SIZE, () -> SwingUtilities.invokeLater(gamePanel::repaint));
+    }
+
+    // a missing high score table is no reason not to play
+    private static RunLog openRunLog(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            return RunLog.open(file);
+        } catch (IOException e) {
+            System.err.println("Couldn't open the run log, scores won't be kept: " + e);
+            return null;
+        }
+    }
+
+    private static FileChannel openReplays(String file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            return ReplayArchive.openForAppend(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Couldn't open the replay archive, levels won't be recorded: " + e);
+            return null;
+        }
+    }
+
+    // the run ends here, demo games are left out of the high scores. Completes with the high scores
+    // once the run is in them, or an empty list if there are none to show
+    private CompletableFuture<List<RunLog.Run>> recordRun(BoardSnapshot last, int level) {
+        if (runLog == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        RunLog.Run run = demo ? null : new RunLog.Run(runSeed, level, totalScore + last.getScore(),
+                runTicks + last.getTick(), System.currentTimeMillis());
+        return leaderboard.thenApplyAsync(best -> {
+            if (run != null) {
+                try {
+                    if (best != null) {
+                        best.record(runLog, run);
+                    } else {
+                        runLog.append(run);
+                    }
+                    runLog.flush();
+                } catch (IOException e) {
+                    System.err.println("Couldn't save the run: " + e);
+                }
+            }
+            return best == null ? List.of() : best.top(HIGH_SCORES);
+        }, runLogWriter);
+    }
+
+    private void showGameOver(int score, CompletableFuture<List<RunLog.Run>> highScores) {
+        stopLoop();
+        discardPrefetch();
+        clearScreen();
+
+        JPanel menuPanel = new JPanel();
+        menuPanel.setBackground(Color.BLACK);
+        menuPanel.setLayout(new BoxLayout(menuPanel, BoxLayout.Y_AXIS));
+        menuPanel.add(Box.createVerticalGlue());
+
+        JLabel titleLabel = new JLabel("GAME OVER");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 40));
+        titleLabel.setForeground(Color.YELLOW);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        menuPanel.add(titleLabel);
+
+        menuPanel.add(Box.createVerticalStrut(20));
+        addLabel(menuPanel, "Score: " + score, 24, Color.WHITE);
+        // filled in once the run log has the run, the rest of the screen doesn't wait for it
+        JPanel highScorePanel = new JPanel();
+        highScorePanel.setOpaque(false);
+        highScorePanel.setLayout(new BoxLayout(highScorePanel, BoxLayout.Y_AXIS));
+        menuPanel.add(highScorePanel);
+        highScores.thenAcceptAsync(best -> {
+            if (currentPanel != menuPanel || best.isEmpty()) {
+                return;
+            }
+            highScorePanel.add(Box.createVerticalStrut(20));
+            addLabel(highScorePanel, "HIGH SCORES", 20, Color.YELLOW);
+            int rank = 1;
+            for (RunLog.Run run : best) {
+                addLabel(highScorePanel, String.format("%d.  %d  (level %d)", rank++, run.score(), run.level()), 16,
+                        Color.WHITE);
+            }
+            menuPanel.revalidate();
+            menuPanel.repaint();
+        }, SwingUtilities::invokeLater);
+
+        menuPanel.add(Box.createVerticalStrut(30));
+
+        JButton newGameButton = new JButton("New Game");
+        newGameButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        newGameButton.setPreferredSize(new Dimension(150, 50));
+        newGameButton.setFont(new Font("Arial", Font.PLAIN, 20));
+        newGameButton.addActionListener(e -> {
+            demo = false;
+            startNewGame(1);
+        });
+        menuPanel.add(newGameButton);
+
+        menuPanel.add(Box.createVerticalStrut(20));
+
+        JButton quitButton = new JButton("Quit");
+        quitButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quitButton.setPreferredSize(new Dimension(150, 50));
+        quitButton.setFont(new Font("Arial", Font.PLAIN, 20));
+        quitButton.addActionListener(e -> System.exit(0));
+        menuPanel.add(quitButton);
+        menuPanel.add(Box.createVerticalGlue());
+
+        currentPanel = menuPanel;
+        add(menuPanel, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+
+    private static void addLabel(JPanel panel, String text, int fontSize, Color color) {
+        JLabel label = new JLabel(text);
+        label.setFont(new Font("Arial", Font.PLAIN, fontSize));
+        label.setForeground(color);
+        label.setAlignmentX(Component.CENTER_ALIGNMENT);
+        panel.add(label);
+    }
+
+    private void showMainMenu() {
+        stopLoop();
+        discardPrefetch();
+        totalScore = 0;
+        clearScreen();
+
+        JPanel menuPanel = new JPanel();
+        menuPanel.setBackground(Color.BLACK);
+        menuPanel.setLayout(new BoxLayout(menuPanel, BoxLayout.Y_AXIS));
+        menuPanel.add(Box.createVerticalGlue());
+
+        JLabel titleLabel = new JLabel("PAC-MAN GAME");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 40));
+        titleLabel.setForeground(Color.YELLOW);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        menuPanel.add(titleLabel);
+
+        menuPanel.add(Box.createVerticalStrut(50));
+
+        JButton newGameButton = new JButton("New Game");
+        newGameButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        newGameButton.setPreferredSize(new Dimension(150, 50));
+        newGameButton.setFont(new Font("Arial", Font.PLAIN, 20));
+        newGameButton.addActionListener(e -> {
+            demo = false;
+            startNewGame(1);
+        });
+        menuPanel.add(newGameButton);
+
+        menuPanel.add(Box.createVerticalStrut(20));
+
+        JButton demoButton = new JButton("Demo");
+        demoButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        demoButton.setPreferredSize(new Dimension(150, 50));
+        demoButton.setFont(new Font("Arial", Font.PLAIN, 20));
+        demoButton.addActionListener(e -> {
+            demo = true;
+            startNewGame(1);
+        });
+        menuPanel.add(demoButton);
+
+        menuPanel.add(Box.createVerticalStrut(20));
+
+        JButton quitButton = new JButton("Quit");
+        quitButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quitButton.setPreferredSize(new Dimension(150, 50));
+        quitButton.setFont(new Font("Arial", Font.PLAIN, 20));
+        quitButton.addActionListener(e -> System.exit(0));
+        menuPanel.add(quitButton);
+
+        menuPanel.add(Box.createVerticalGlue());
+
+        currentPanel = menuPanel;
+        add(menuPanel, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+
+
+    // take the menu or game over screen down, or the game panels when going back to a menu
+    private void clearScreen() {
+        if (renderer != null) {
+            renderer.stop();
+        }
+        if (currentPanel != null) {
+            remove(currentPanel);
+        }
+        remove(scorePanel);
+        remove(controlPanel);
+        currentPanel = null;
+    }
+
+    // start over from a menu or the reset button
+    private void startNewGame(int level) {
+        discardPrefetch();
+        totalScore = 0;
+        runSeed = System.currentTimeMillis();
+        runTicks = 0;
+        startLevel(new Board(BOARD_SIZE, new Location(0, 0), runSeed, level), runSeed, level);
+    }
+
+    // seed is the one current was generated from, replays are played back from it
+    private void startLevel(Board current, long seed, int level) {
+        stopLoop();
+        if (currentPanel != gamePanel) {
+            clearScreen();
+            setTitle("Pacman");
+            setSize(500, 597);
+            add(gamePanel, BorderLayout.CENTER);
+            add(scorePanel, BorderLayout.NORTH);
+            add(controlPanel, BorderLayout.SOUTH);
+            currentPanel = gamePanel;
+            revalidate();
+        }
+        board = current;
+        shownSnapshot = board.snapshot(0);
+        camera.reset();
+        scoreLabel.setText("Score: " + totalScore);
+        if (renderer != null) {
+            renderer.reset(shownSnapshot);
+            renderer.start();
+        }
+
+        // the board runs on its own thread, every finished tick is handed over to the EDT to be shown
+        gameLoop = new GameLoop(board, TICKS_PER_SECOND, snapshot -> {
+            if (board != current) {
+                return; // a late tick from the level before
+            }
+            if (renderer != null) {
+                renderer.show(snapshot);
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (board == current) {
+                    showTick(snapshot, level);
+                }
+            });
+        });
+        if (replays != null) {
+            gameLoop.setRecorder(new ReplayRecorder(Replay.TICKS, BOARD_SIZE, new Location(0, 0), seed, level), replays);
+        }
+        if (demo) {
+            // search for half of every tick on all cores, in tick mode to match how the loop plays
+            autopilot = new MctsPlayer(1_000_000_000L / TICKS_PER_SECOND / 2, Runtime.getRuntime().availableProcessors(),
+                    40, true, System.nanoTime());
+            gameLoop.setAutopilot(autopilot);
+        } else {
+            autopilot = null;
+        }
+        prefetch(level + 1);
+        gamePanel.repaint();
+        requestFocusInWindow();
+        gameLoop.start();
+    }
+
+    // start generating a level's board in the background so moving on to it doesn't stall the EDT
+    private void prefetch(int level) {
+        long seed = System.currentTimeMillis();
+        nextBoardLevel = level;
+        nextBoardSeed = seed;
+        nextBoard = CompletableFuture.supplyAsync(() -> new Board(BOARD_SIZE, new Location(0, 0), seed, level), prefetcher);
+    }
+
+    // move on to the next level once its board is ready, without blocking the EDT while it is generated.
+    // Normally the prefetch finished long ago, if nothing matching was prefetched the board is generated
+    // on the prefetcher now
+    private void startNextLevel(int level) {
+        if (nextBoard == null || nextBoardLevel != level) {
+            discardPrefetch();
+            prefetch(level);
+        }
+        CompletableFuture<Board> next = nextBoard;
+        long seed = nextBoardSeed;
+        nextBoard = null;
+        pendingLevel = next;
+        next.thenAcceptAsync(ready -> {
+            if (pendingLevel == next) {
+                pendingLevel = null;
+                startLevel(ready, seed, level);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    // also drops a next level still being waited for, the menus and new games call this
+    private void discardPrefetch() {
+        if (nextBoard != null) {
+            nextBoard.cancel(false);
+            nextBoard = null;
+        }
+        if (pendingLevel != null) {
+            pendingLevel.cancel(false);
+            pendingLevel = null;
+        }
+    }
+
+    private void stopLoop() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+            gameLoop = null;
+        }
+    }
+
+    // runs on the EDT for every tick of the current board
+    private void showTick(BoardSnapshot snapshot, int level) {
+        BoardSnapshot previous = shownSnapshot;
+        shownSnapshot = snapshot;
+        if (renderer != null) {
+            // the render thread draws every frame on its own
+        } else if (followPacman(snapshot)) {
+            gamePanel.repaint(); // the whole view scrolled
+        } else {
+            repaintChangedCells(previous, snapshot);
+        }
+        if (autopilot != null) {
+            scoreLabel.setText(String.format("Score: %d   (demo, %.0f playouts/s)", totalScore + snapshot.getScore(),
+                    autopilot.getPlayoutsPerSecond()));
+        } else {
+            scoreLabel.setText("Score: " + (totalScore + snapshot.getScore()));
+        }
+        if (snapshot.isGameOver()) {
+            showGameOver(totalScore + snapshot.getScore(), recordRun(snapshot, level));
+        } else if (snapshot.getPelletCount() == 0) {
+            totalScore += snapshot.getScore();
+            runTicks += snapshot.getTick();
+            stopLoop();
+            board = null; // ticks of the cleared level still queued on the EDT are dropped
+            startNextLevel(level + 1);
+        }
+    }
+
+    // scroll the view when pacman gets within CAMERA_MARGIN cells of its edge, returns true if it moved
+    private boolean followPacman(BoardSnapshot snapshot) {
+        int columns = Math.max(1, gamePanel.getWidth() / BLOCK_SIZE);
+        int rows = Math.max(1, gamePanel.getHeight() / BLOCK_SIZE);
+        return camera.follow(snapshot.getPacmanX(), snapshot.getPacmanY(), columns, rows, snapshot.getSize());
+    }
+
+    // only repaint the cells that pacman or a ghost left or entered
+    private void repaintChangedCells(BoardSnapshot previous, BoardSnapshot snapshot) {
+        repaintCell(previous.getPacmanX(), previous.getPacmanY());
+        repaintCell(snapshot.getPacmanX(), snapshot.getPacmanY());
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            if (previous.isGhostAlive(i)) {
+                repaintCell(previous.getGhostX(i), previous.getGhostY(i));
+            }
+            if (snapshot.isGhostAlive(i)) {
+                repaintCell(snapshot.getGhostX(i), snapshot.getGhostY(i));
+            }
+        }
+    }
+
+    // only repaint the part of the panel covering one grid cell, grid lines included
+    private void repaintCell(int x, int y) {
+        gamePanel.repaint((x - camera.getX()) * BLOCK_SIZE, (y - camera.getY()) * BLOCK_SIZE, BLOCK_SIZE + 1, BLOCK_SIZE + 1);
+    }
+
+    private JPanel createGamePanel() {
+        JPanel panel = new JPanel() {
+            // grid and walls never change during a level, so they are drawn once per camera position
+            // and blitted after that
+            private BufferedImage background;
+            private Board backgroundBoard; // the panel is reused across levels, each one has new walls
+            private int backgroundX;
+            private int backgroundY;
+
+            private BufferedImage renderBackground(BoardSnapshot snapshot, int blockSize) {
+                BufferedImage image = getGraphicsConfiguration().createCompatibleImage(getWidth(), getHeight());
+                Graphics g = image.getGraphics();
+                g.setColor(Color.BLACK);
+                g.fillRect(0, 0, getWidth(), getHeight());
+                // Draw grid
+                g.setColor(Color.LIGHT_GRAY);
+                for (int i = 0; i < getWidth(); i += blockSize) {
+                    for (int j = 0; j < getHeight(); j += blockSize) {
+                        g.drawRect(i, j, blockSize, blockSize);
+                    }
+                }
+                // Draw obstacles, only the ones in view
+                g.setColor(Color.BLUE);
+                int columns = getWidth() / blockSize + 1;
+                int rows = getHeight() / blockSize + 1;
+                for (int y = 0; y < rows; y++) {
+                    for (int x = 0; x < columns; x++) {
+                        if (snapshot.isWall(camera.getX() + x, camera.getY() + y)) {
+                            g.fillRect(x * blockSize, y * blockSize, blockSize, blockSize);
+                        }
+                    }
+                }
+                g.dispose();
+                return image;
+            }
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                if (!Metrics.ENABLED) {
+                    paintBoard(g);
+                    return;
+                }
+                long start = System.nanoTime();
+                paintBoard(g);
+                Metrics.PAINT.record(System.nanoTime() - start);
+            }
+
+            private void paintBoard(Graphics g) {
+                int blockSize = 50;
+                if (getWidth() == 0 || getHeight() == 0) {
+                    return;
+                }
+                BoardSnapshot snapshot = shownSnapshot;
+                if (background == null || background.getWidth() != getWidth() || background.getHeight() != getHeight()
+                        || backgroundX != camera.getX() || backgroundY != camera.getY() || backgroundBoard != board) {
+                    background = renderBackground(snapshot, blockSize);
+                    backgroundBoard = board;
+                    backgroundX = camera.getX();
+                    backgroundY = camera.getY();
+                }
+                g.drawImage(background, 0, 0, null);
+                // Draw pellets and powerups, only for the cells being repainted. x and y are screen cells,
+                // the board cell under them is offset by the camera
+                Rectangle clip = g.getClipBounds();
+                if (clip == null) {
+                    clip = new Rectangle(0, 0, getWidth(), getHeight());
+                }
+                int firstX = Math.max(0, clip.x / blockSize);
+                int firstY = Math.max(0, clip.y / blockSize);
+                int lastX = (clip.x + clip.width) / blockSize;
+                int lastY = (clip.y + clip.height) / blockSize;
+                for (int y = firstY; y <= lastY; y++) {
+                    for (int x = firstX; x <= lastX; x++) {
+                        if (snapshot.hasPellet(camera.getX() + x, camera.getY() + y)) {
+                            g.setColor(Color.WHITE);
+                            int pelletSize = 10;
+                            g.fillOval(x * blockSize + (blockSize - pelletSize) / 2, y * blockSize + (blockSize - pelletSize) / 2, pelletSize, pelletSize);
+                        } else if (snapshot.hasPowerup(camera.getX() + x, camera.getY() + y)) {
+                            g.setColor(Color.YELLOW);
+                            int pelletSize = 15;
+                            g.fillOval(x * blockSize + (blockSize - pelletSize) / 2, y * blockSize + (blockSize - pelletSize) / 2, pelletSize, pelletSize);
+                        }
+                    }
+                }
+                // Draw Pac-Man centered in block
+                g.setColor(Color.YELLOW);
+                if (snapshot.isImmune()) {
+                    g.setColor(Color.GREEN);
+                }
+                int pacmanSize = 30;
+                int pacmanX = (snapshot.getPacmanX() - camera.getX()) * blockSize + (blockSize - pacmanSize) / 2;
+                int pacmanY = (snapshot.getPacmanY() - camera.getY()) * blockSize + (blockSize - pacmanSize) / 2;
+                g.fillArc(pacmanX, pacmanY, pacmanSize, pacmanSize, 45, 270);
+                // Draw ghosts
+
+                g.setColor(Color.RED);
+                Image ghostImage = sprites.get("ghost");
+                for (int i = 0; i < snapshot.getGhostCount(); i++) {
+                    if (!snapshot.isGhostAlive(i)) continue;
+                    int ghostX = (snapshot.getGhostX(i) - camera.getX()) * blockSize;
+                    int ghostY = (snapshot.getGhostY(i) - camera.getY()) * blockSize;
+                    if (ghostX < -blockSize || ghostY < -blockSize || ghostX > getWidth() || ghostY > getHeight()) continue;
+                    if (ghostImage != null) {
+                        g.drawImage(ghostImage, ghostX, ghostY, null);
+                    } else {
+                        g.fillOval(ghostX, ghostY, 50, 50);
+                    }
+                }
+
+            }
+        };
+        panel.setPreferredSize(new Dimension(500, 500));
+        return panel;
+    }
+
+    private JPanel createScorePanel() {
+        JPanel scorePanel = new JPanel();
+        scoreLabel = new JLabel("Score: " + totalScore);
+        scorePanel.add(scoreLabel);
+        scorePanel.setBackground(Color.GRAY);
+        return scorePanel;
+    }
+
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel();
+        JButton menuButton = new JButton("Menu");
+        JButton resetButton = new JButton("Reset");
+        menuButton.addActionListener(e -> showMainMenu());
+        resetButton.addActionListener(e -> startNewGame(1));
+        controlPanel.add(menuButton);
+        controlPanel.add(resetButton);
+        controlPanel.setBackground(Color.LIGHT_GRAY);
+        return controlPanel;
+    }
+
+    public static void main(String[] args) {
+        new Main();
+    }
+}
@@ -0,0 +1,37 @@
+package pacman;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+// Converts the engine's grid cells to and from screen pixels, BLOCK_SIZE pixels to a cell.
+// The engine knows nothing about pixels, this is the only place the two meet.
+public final class Pixels {
+    public static final int BLOCK_SIZE = Main.BLOCK_SIZE;
+
+    private Pixels() {
+    }
+
+    // the grid cell under a pixel position
+    public static Location fromGridCoords(Location l) {
+        return new Location(l.getX() / BLOCK_SIZE, l.getY() / BLOCK_SIZE);
+    }
+
+    // the pixel position of a grid cell's top left corner
+    public static Location toGridCoords(Location l) {
+        return new Location(l.getX() * BLOCK_SIZE, l.getY() * BLOCK_SIZE);
+    }
+
+    public static Point toPoint(Location l) {
+        return new Point(l.getX() * BLOCK_SIZE, l.getY() * BLOCK_SIZE);
+    }
+
+    // e.g. Pixels.toPoints(board.getObstacles())
+    public static ArrayList<Point> toPoints(List<Location> cells) {
+        ArrayList<Point> points = new ArrayList<>(cells.size());
+        for (Location cell : cells) {
+            points.add(toPoint(cell));
+        }
+        return points;
+    }
+}
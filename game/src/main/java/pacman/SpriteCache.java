@@ -0,0 +1,109 @@
+package pacman;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+
+// Loads each sprite once in the background and keeps it for the lifetime of the game.
+// A sprite is looked up on the classpath under /pacman/sprites/<name>.png, then in the on disk
+// cache directory, and only then downloaded from its url (the download is saved to the cache
+// directory so it only ever happens once). Until a sprite is ready get() returns null and callers
+// draw a placeholder, so nothing ever waits on disk or network.
+public class SpriteCache {
+    private final Path cacheDirectory;
+    private final Executor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Image>> sprites = new ConcurrentHashMap<>();
+
+    public SpriteCache(Path cacheDirectory) {
+        this(cacheDirectory, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sprite-loader");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public SpriteCache(Path cacheDirectory, Executor executor) {
+        this.cacheDirectory = cacheDirectory;
+        this.executor = executor;
+    }
+
+    // starts loading the sprite scaled to width x height unless it was requested before.
+    // url may be null to never touch the network, onLoaded runs on the loader thread once the sprite is ready
+    public CompletableFuture<Image> load(String name, URL url, int width, int height, Runnable onLoaded) {
+        return sprites.computeIfAbsent(name, n -> {
+            CompletableFuture<Image> future = CompletableFuture
+                    .supplyAsync(() -> toCompatible(read(n, url), width, height), executor)
+                    .exceptionally(e -> null);
+            future.thenRun(onLoaded);
+            return future;
+        });
+    }
+
+    // the sprite if it has finished loading, null while it is still loading or if it couldn't be found
+    public Image get(String name) {
+        CompletableFuture<Image> future = sprites.get(name);
+        return future == null ? null : future.getNow(null);
+    }
+
+    private BufferedImage read(String name, URL url) {
+        String file = name + ".png";
+        try {
+            try (InputStream in = SpriteCache.class.getResourceAsStream("/pacman/sprites/" + file)) {
+                if (in != null) {
+                    return ImageIO.read(in);
+                }
+            }
+            Path cached = cacheDirectory.resolve(file);
+            if (Files.isRegularFile(cached)) {
+                return ImageIO.read(cached.toFile());
+            }
+            if (url == null) {
+                throw new IOException("No sprite named " + name);
+            }
+            byte[] bytes;
+            try (InputStream in = url.openStream()) {
+                bytes = in.readAllBytes();
+            }
+            // write to a temporary file first so a half written download is never picked up
+            Files.createDirectories(cacheDirectory);
+            Path temp = Files.createTempFile(cacheDirectory, name, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return ImageIO.read(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // scale once up front into the screen's pixel format so drawing it is a plain blit
+    private static Image toCompatible(BufferedImage image, int width, int height) {
+        if (image == null) {
+            throw new IllegalArgumentException("Not a readable image");
+        }
+        BufferedImage compatible;
+        if (GraphicsEnvironment.isHeadless()) {
+            compatible = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            compatible = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        Graphics2D g = compatible.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return compatible;
+    }
+}
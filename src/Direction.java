@@ -1,6 +0,0 @@
-public enum Direction {
-    UP,
-    DOWN,
-    LEFT,
-    RIGHT,
-}